@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml;
+
+import net.neoforged.bus.api.BusBuilder;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.fml.event.IModBusEvent;
+import net.neoforged.fml.loading.BenchmarkPack;
+import net.neoforged.fml.loading.LoadingModList;
+import net.neoforged.fml.loading.ModSorter;
+import net.neoforged.fml.loading.moddiscovery.ModFileInfo;
+import net.neoforged.neoforgespi.language.IModInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts one mod bus event to every mod of a synthetic pack, phase by phase like {@link ModLoader#postEvent(Event)}.
+ * The mod loader itself needs a launched game, so the benchmark sets up the {@link ModList} and runs the same loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+    @Param({"100", "1000"})
+    public int mods;
+    @Param({"2"})
+    public int listenersPerMod;
+
+    private BenchmarkPack pack;
+
+    public static final class BenchmarkEvent extends Event implements IModBusEvent {
+        private int received;
+    }
+
+    private static final class BenchmarkModContainer extends ModContainer {
+        private final IEventBus eventBus;
+
+        private BenchmarkModContainer(final IModInfo info, final int listeners) {
+            super(info);
+            this.eventBus = BusBuilder.builder()
+                    .markerType(IModBusEvent.class)
+                    .allowPerPhasePost()
+                    .build();
+            final EventPriority[] priorities = EventPriority.values();
+            for (int i = 0; i < listeners; i++) {
+                eventBus.addListener(priorities[i % priorities.length], false, BenchmarkEvent.class, event -> event.received++);
+            }
+        }
+
+        @Override
+        public boolean matches(final Object mod) {
+            return false;
+        }
+
+        @Override
+        public Object getMod() {
+            return null;
+        }
+
+        @Override
+        public IEventBus getEventBus() {
+            return eventBus;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        pack = BenchmarkPack.create(mods, 1, 2);
+        final LoadingModList loadingModList = ModSorter.sort(pack.modFiles(), List.of());
+        final ModList modList = ModList.of(loadingModList.getModFiles().stream().map(ModFileInfo::getFile).toList(), loadingModList.getMods());
+        modList.setLoadedMods(loadingModList.getMods().stream()
+                .<ModContainer>map(info -> new BenchmarkModContainer(info, listenersPerMod))
+                .toList());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pack.delete();
+    }
+
+    @Benchmark
+    public BenchmarkEvent postEvent() {
+        final BenchmarkEvent event = new BenchmarkEvent();
+        for (EventPriority phase : EventPriority.values()) {
+            ModList.get().forEachModInOrder(mc -> mc.acceptEvent(phase, event));
+        }
+        return event;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.common.asm;
+
+import cpw.mods.modlauncher.serviceapi.ILaunchPluginService;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the dist cleaner over a batch of classes where every fourth field and method is only present on the client.
+ * The cleaner edits the class nodes, so every invocation gets fresh copies; one operation is the whole batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuntimeDistCleanerBenchmark {
+    private static final String ONLY_IN = Type.getDescriptor(OnlyIn.class);
+    private static final String DIST = Type.getDescriptor(Dist.class);
+
+    @Param({"500"})
+    public int classes;
+    @Param({"20"})
+    public int members;
+
+    private final RuntimeDistCleaner cleaner = new RuntimeDistCleaner();
+    private byte[][] classBytes;
+    private ClassNode[] nodes;
+
+    @Setup
+    public void setup() {
+        cleaner.getExtension().accept(Dist.DEDICATED_SERVER);
+        classBytes = new byte[classes][];
+        for (int i = 0; i < classes; i++) {
+            classBytes[i] = generateClass("net/neoforged/fmlbench/Sided" + i);
+        }
+        nodes = new ClassNode[classes];
+    }
+
+    @Setup(Level.Invocation)
+    public void readClasses() {
+        for (int i = 0; i < classes; i++) {
+            final ClassNode node = new ClassNode();
+            new ClassReader(classBytes[i]).accept(node, 0);
+            nodes[i] = node;
+        }
+    }
+
+    @Benchmark
+    public void processClassWithFlags(final Blackhole blackhole) {
+        for (ClassNode node : nodes) {
+            blackhole.consume(cleaner.processClassWithFlags(ILaunchPluginService.Phase.AFTER, node, Type.getObjectType(node.name), "classloading"));
+        }
+    }
+
+    private byte[] generateClass(final String name) {
+        final ClassWriter cw = new ClassWriter(0);
+        cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        for (int i = 0; i < members; i++) {
+            final FieldVisitor field = cw.visitField(Opcodes.ACC_PUBLIC, "field" + i, "I", null, null);
+            if (i % 4 == 0) onlyIn(field.visitAnnotation(ONLY_IN, true));
+            field.visitEnd();
+
+            final MethodVisitor method = cw.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "()I", null, null);
+            if (i % 4 == 0) onlyIn(method.visitAnnotation(ONLY_IN, true));
+            method.visitCode();
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitFieldInsn(Opcodes.GETFIELD, name, "field" + i, "I");
+            method.visitInsn(Opcodes.IRETURN);
+            method.visitMaxs(1, 1);
+            method.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void onlyIn(final AnnotationVisitor annotation) {
+        annotation.visitEnum("value", DIST, Dist.CLIENT.name());
+        annotation.visitEnd();
+    }
+}
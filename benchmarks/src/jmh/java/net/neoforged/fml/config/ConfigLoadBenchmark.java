@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.config;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.ConfigSpec;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.electronwill.nightconfig.core.file.CommentedFileConfig;
+import com.electronwill.nightconfig.core.utils.UnmodifiableConfigWrapper;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.fml.ModContainer;
+import net.neoforged.fml.loading.BenchmarkPack;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.moddiscovery.ModFile;
+import net.neoforged.neoforgespi.language.IModInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens, corrects and saves the common configs of a synthetic pack, one config file per mod, like
+ * {@link ConfigTracker#loadConfigs(ModConfig.Type, Path)} does for each config before posting the loading event.
+ * The event needs the bindings provider of a launched game, so it is not posted here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigLoadBenchmark {
+    @Param({"100"})
+    public int mods;
+
+    private BenchmarkPack pack;
+    private List<ModConfig> configs;
+
+    /**
+     * Sixteen integer values, the same shape as the config files written by {@link #writeConfigFile}.
+     */
+    private static final class BenchmarkConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfig> implements IConfigSpec<BenchmarkConfigSpec> {
+        private final ConfigSpec spec;
+
+        private BenchmarkConfigSpec(final String modId) {
+            super(Config.inMemory());
+            this.spec = spec(modId);
+        }
+
+        private static ConfigSpec spec(final String modId) {
+            final ConfigSpec spec = new ConfigSpec();
+            for (int i = 0; i < 16; i++) {
+                spec.defineInRange(List.of(modId, "value0_" + i), 0, 0, 1000);
+            }
+            return spec;
+        }
+
+        @Override
+        public void acceptConfig(final CommentedConfig data) {
+            if (data != null && !isCorrect(data)) correct(data);
+        }
+
+        @Override
+        public boolean isCorrecting() {
+            return false;
+        }
+
+        @Override
+        public boolean isCorrect(final CommentedConfig commentedFileConfig) {
+            return spec.isCorrect(commentedFileConfig);
+        }
+
+        @Override
+        public int correct(final CommentedConfig commentedFileConfig) {
+            return spec.correct(commentedFileConfig);
+        }
+
+        @Override
+        public void afterReload() {
+        }
+    }
+
+    private static final class BenchmarkModContainer extends ModContainer {
+        private BenchmarkModContainer(final IModInfo info) {
+            super(info);
+        }
+
+        @Override
+        public boolean matches(final Object mod) {
+            return false;
+        }
+
+        @Override
+        public Object getMod() {
+            return null;
+        }
+
+        @Override
+        public IEventBus getEventBus() {
+            return null;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        pack = BenchmarkPack.create(mods, 1, 0);
+        configs = new ArrayList<>();
+        final Random random = new Random(0);
+        for (ModFile modFile : pack.modFiles()) {
+            for (IModInfo info : modFile.getModInfos()) {
+                if (info.getModId().equals("minecraft")) continue;
+                final ModConfig config = new ModConfig(ModConfig.Type.COMMON, new BenchmarkConfigSpec(info.getModId()), new BenchmarkModContainer(info), info.getModId() + "-0.toml");
+                writeConfigFile(config, random);
+                configs.add(config);
+            }
+        }
+    }
+
+    /**
+     * Writes a config file that is already correct, so each iteration reads and saves it without correcting it.
+     */
+    private static void writeConfigFile(final ModConfig config, final Random random) throws IOException {
+        final String modId = config.getModId();
+        final StringBuilder toml = new StringBuilder("[").append(modId).append("]\n");
+        for (int i = 0; i < 16; i++) {
+            toml.append("value0_").append(i).append(" = ").append(random.nextInt(1000)).append('\n');
+        }
+        final Path file = FMLPaths.CONFIGDIR.get().resolve(config.getFileName());
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, toml);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (ModConfig config : configs) {
+            ConfigTracker.INSTANCE.configSets().get(config.getType()).remove(config);
+            ConfigTracker.INSTANCE.fileMap().remove(config.getFileName());
+        }
+        pack.delete();
+    }
+
+    @Benchmark
+    public List<ModConfig> loadConfigs() {
+        final Path configDir = FMLPaths.CONFIGDIR.get();
+        for (ModConfig config : configs) {
+            final CommentedFileConfig configData = ConfigFileTypeHandler.TOML.reader(configDir).apply(config);
+            config.setConfigData(configData);
+            config.save();
+        }
+        for (ModConfig config : configs) {
+            ConfigFileTypeHandler.TOML.unload(config);
+            config.setConfigData(null);
+        }
+        return configs;
+    }
+}
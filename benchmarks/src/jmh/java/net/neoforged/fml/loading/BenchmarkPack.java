@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading;
+
+import net.neoforged.fml.loading.bench.SyntheticPackGenerator;
+import net.neoforged.fml.loading.moddiscovery.ModFile;
+import net.neoforged.fml.loading.moddiscovery.ModsFolderLocator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * A game directory holding a pack written by {@link SyntheticPackGenerator}, plus the {@code minecraft} system mod
+ * the mod sorter requires, set up so the loader classes can be used outside of a launch.
+ */
+public final class BenchmarkPack {
+    private final Path gameDir;
+    private final List<ModFile> modFiles;
+
+    private BenchmarkPack(final Path gameDir, final List<ModFile> modFiles) {
+        this.gameDir = gameDir;
+        this.modFiles = modFiles;
+    }
+
+    /**
+     * Generates a pack of {@code jars} mod jars with {@code classes} classes each and reads its mod files.
+     */
+    public static BenchmarkPack create(final int jars, final int classes, final int dependencies) throws IOException {
+        final Path gameDir = Files.createTempDirectory("fmlbench");
+        SyntheticPackGenerator.main(new String[] {
+                "--output", gameDir.toString(),
+                "--jars", Integer.toString(jars),
+                "--classes", Integer.toString(classes),
+                "--dependencies", Integer.toString(dependencies)
+        });
+        writeMinecraftJar(gameDir.resolve("mods").resolve("minecraft.jar"));
+        FMLPaths.loadAbsolutePaths(gameDir);
+        setVersionInfo(new VersionInfo("20.2.0", "1.0", "1.20.2", "20231019"));
+
+        final PackLocator locator = new PackLocator();
+        final List<ModFile> modFiles = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(FMLPaths.MODSDIR.get())) {
+            for (Path path : paths.sorted().toList()) {
+                final ModFile modFile = locator.read(path);
+                modFile.identifyMods();
+                modFiles.add(modFile);
+            }
+        }
+        return new BenchmarkPack(gameDir, List.copyOf(modFiles));
+    }
+
+    public Path gameDir() {
+        return gameDir;
+    }
+
+    public List<ModFile> modFiles() {
+        return modFiles;
+    }
+
+    public void delete() throws IOException {
+        try (Stream<Path> paths = Files.walk(gameDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads the pack's jars the way the mods folder locator does, so the files have a backing jar like in a launch.
+     */
+    private static final class PackLocator extends ModsFolderLocator {
+        private ModFile read(final Path path) {
+            final ModFileOrException result = createMod(path);
+            if (result.file() == null) {
+                throw new IllegalStateException("Could not read benchmark jar " + path, result.ex());
+            }
+            return (ModFile) result.file();
+        }
+    }
+
+    private static void writeMinecraftJar(final Path path) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_VERSION, "1.20.2");
+        final String modsToml = """
+                modLoader="minecraft"
+                loaderVersion="1"
+                license="Mojang Studios, All Rights Reserved"
+                [[mods]]
+                modId="minecraft"
+                version="1.20.2"
+                """;
+        try (OutputStream out = Files.newOutputStream(path); JarOutputStream jar = new JarOutputStream(out, manifest)) {
+            jar.putNextEntry(new JarEntry("META-INF/mods.toml"));
+            jar.write(modsToml.getBytes(StandardCharsets.UTF_8));
+            jar.closeEntry();
+        }
+    }
+
+    /**
+     * The version support matrix reads the game version from {@link FMLLoader} when it is first used.
+     */
+    private static void setVersionInfo(final VersionInfo versionInfo) {
+        try {
+            final Field field = FMLLoader.class.getDeclaredField("versionInfo");
+            field.setAccessible(true);
+            field.set(null, versionInfo);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to set the version info", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading;
+
+import net.neoforged.fml.loading.moddiscovery.ModFileResourceIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resource lookups over the whole mod list, as done by the game layer class loader for every class and resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadingModListBenchmark {
+    @Param({"100", "1000"})
+    public int jars;
+
+    private BenchmarkPack pack;
+    private LoadingModList loadingModList;
+    private String[] present;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        pack = BenchmarkPack.create(jars, 20, 2);
+        loadingModList = ModSorter.sort(pack.modFiles(), List.of());
+        present = new String[jars];
+        for (int i = 0; i < jars; i++) {
+            present[i] = String.format(Locale.ROOT, "net/neoforged/fmlbench/benchmod%04d/Generated%d.class", i, i % 20);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pack.delete();
+    }
+
+    @Benchmark
+    public Path findResourcePresent() {
+        final String name = present[next];
+        next = (next + 1) % present.length;
+        return loadingModList.findResource(name);
+    }
+
+    @Benchmark
+    public Path findResourceMissing() {
+        return loadingModList.findResource("net/neoforged/fmlbench/Missing.class");
+    }
+
+    @Benchmark
+    public ModFileResourceIndex buildResourceIndex() {
+        return ModFileResourceIndex.of(loadingModList.getModFiles());
+    }
+}
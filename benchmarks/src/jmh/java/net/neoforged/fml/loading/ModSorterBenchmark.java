@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate detection, dependency validation and sorting of a synthetic pack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModSorterBenchmark {
+    @Param({"100", "1000"})
+    public int jars;
+    @Param({"4"})
+    public int dependencies;
+
+    private BenchmarkPack pack;
+
+    @Setup
+    public void setup() throws IOException {
+        pack = BenchmarkPack.create(jars, 1, dependencies);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pack.delete();
+    }
+
+    @Benchmark
+    public UniqueModListBuilder.UniqueModListData buildUniqueList() {
+        return new UniqueModListBuilder(pack.modFiles()).buildUniqueList();
+    }
+
+    @Benchmark
+    public LoadingModList sort() {
+        final LoadingModList list = ModSorter.sort(pack.modFiles(), List.of());
+        if (!list.getErrors().isEmpty()) throw new IllegalStateException("Sorting the pack failed: " + list.getErrors());
+        return list;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.google.common.collect.ImmutableList;
+import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link ModClassVisitor} over classes already read into memory, so the allocation reported by the gc profiler
+ * ({@code gc.alloc.rate.norm}) is that of visiting alone. The classes default to Guava's; pass {@code -p jar=<path>}
+ * to visit another jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModClassVisitorBenchmark {
+    @Param({""})
+    public String jar;
+
+    private final List<byte[]> classes = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException, URISyntaxException {
+        final Path path = jar.isEmpty() ? Path.of(ImmutableList.class.getProtectionDomain().getCodeSource().getLocation().toURI()) : Path.of(jar);
+        try (DirectJar directJar = DirectJar.open(path).orElseThrow(() -> new IllegalStateException("Unable to read " + path + " directly"))) {
+            for (DirectJar.Entry entry : directJar.classEntries()) {
+                classes.add(Arrays.copyOf(directJar.read(entry), entry.size()));
+            }
+        }
+    }
+
+    @Benchmark
+    public ModFileScanData visit() {
+        final ModFileScanData result = new ModFileScanData();
+        final ModClassVisitor visitor = new ModClassVisitor();
+        for (byte[] classFile : classes) {
+            try {
+                new ClassReader(classFile).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+                visitor.buildData(result.getClasses(), result.getAnnotations());
+            } catch (IllegalArgumentException e) {
+                // skipped like in Scanner
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import net.neoforged.fml.loading.BenchmarkPack;
+import net.neoforged.neoforgespi.language.IModFileInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the mods.toml of a mod file, once through the metadata cache as a launch does and once straight from the jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModFileParserBenchmark {
+    private BenchmarkPack pack;
+    private List<ModFile> modFiles;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        pack = BenchmarkPack.create(50, 1, 4);
+        modFiles = pack.modFiles();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pack.delete();
+    }
+
+    @Benchmark
+    public IModFileInfo modsTomlParser() {
+        return ModFileParser.modsTomlParser(nextModFile());
+    }
+
+    @Benchmark
+    public Optional<UnmodifiableConfig> readModsToml() {
+        return ModFileParser.readModsToml(nextModFile());
+    }
+
+    private ModFile nextModFile() {
+        final ModFile modFile = modFiles.get(next);
+        next = (next + 1) % modFiles.size();
+        return modFile;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.google.common.collect.ImmutableList;
+import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans every class of a real jar the way {@link Scanner} scans a mod jar, without the scan cache.
+ * The jar defaults to Guava, which is about the size of a large mod; pass {@code -p jar=<path>} to scan another one,
+ * such as the Minecraft jar.
+ * <p>
+ * {@link #fullVisit()} runs {@link ModClassVisitor} over every class, which is what {@link #scan()} did before the
+ * constant pool prefilter, and {@link #prefilter()} measures only the prefilter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScannerBenchmark {
+    @Param({""})
+    public String jar;
+
+    private DirectJar directJar;
+
+    @Setup
+    public void setup() throws IOException, URISyntaxException {
+        final Path path = jar.isEmpty() ? Path.of(ImmutableList.class.getProtectionDomain().getCodeSource().getLocation().toURI()) : Path.of(jar);
+        directJar = DirectJar.open(path).orElseThrow(() -> new IllegalStateException("Unable to read " + path + " directly"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        directJar.close();
+    }
+
+    @Benchmark
+    public ModFileScanData scan() throws IOException {
+        final ModFileScanData result = new ModFileScanData();
+        for (DirectJar.Entry entry : directJar.classEntries()) {
+            try {
+                Scanner.visitClass(directJar.read(entry), entry.size(), result);
+            } catch (IllegalArgumentException e) {
+                // skipped like in Scanner
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public ModFileScanData fullVisit() throws IOException {
+        final ModFileScanData result = new ModFileScanData();
+        final ModClassVisitor visitor = new ModClassVisitor();
+        for (DirectJar.Entry entry : directJar.classEntries()) {
+            try {
+                new ClassReader(directJar.read(entry), 0, entry.size()).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+                visitor.buildData(result.getClasses(), result.getAnnotations());
+            } catch (IllegalArgumentException e) {
+                // skipped like in Scanner
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of classes that still need the full visit
+     */
+    @Benchmark
+    public int prefilter() throws IOException {
+        int visited = 0;
+        for (DirectJar.Entry entry : directJar.classEntries()) {
+            try {
+                final byte[] classFile = directJar.read(entry);
+                if (Scanner.mayHaveInterestingAnnotations(new ClassReader(classFile, 0, entry.size()), classFile)) visited++;
+            } catch (IllegalArgumentException e) {
+                // skipped like in Scanner
+            }
+        }
+        return visited;
+    }
+}
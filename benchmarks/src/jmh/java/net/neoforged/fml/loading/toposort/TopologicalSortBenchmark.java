@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.toposort;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts random acyclic graphs with both the Guava graph based sort and the indexed one {@link net.neoforged.fml.loading.ModSorter} uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopologicalSortBenchmark {
+    @Param({"500", "5000"})
+    public int nodes;
+    @Param({"4"})
+    public int edgesPerNode;
+
+    private int[] sources;
+    private int[] targets;
+    private List<Integer> nodeList;
+    private MutableGraph<Integer> guavaGraph;
+    private IndexedGraph indexedGraph;
+    private MutableGraph<Integer> cyclicGuavaGraph;
+    private IndexedGraph cyclicIndexedGraph;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        // Edges only go forward in a shuffled order of the nodes, so the graph has no cycles
+        final List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) order.add(i);
+        Collections.shuffle(order, random);
+        final int edges = nodes * edgesPerNode;
+        sources = new int[edges];
+        targets = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            final int from = random.nextInt(nodes - 1);
+            final int to = from + 1 + random.nextInt(nodes - from - 1);
+            sources[i] = order.get(from);
+            targets[i] = order.get(to);
+        }
+
+        nodeList = order.stream().sorted().toList();
+        guavaGraph = GraphBuilder.directed().expectedNodeCount(nodes).build();
+        nodeList.forEach(guavaGraph::addNode);
+        final IndexedGraph.Builder builder = IndexedGraph.builder(nodes);
+        for (int i = 0; i < edges; i++) {
+            guavaGraph.putEdge(sources[i], targets[i]);
+            builder.putEdge(sources[i], targets[i]);
+        }
+        indexedGraph = builder.build();
+
+        // The same graph with a few back edges, for the cycle detection
+        cyclicGuavaGraph = GraphBuilder.directed().expectedNodeCount(nodes).build();
+        nodeList.forEach(cyclicGuavaGraph::addNode);
+        final IndexedGraph.Builder cyclicBuilder = IndexedGraph.builder(nodes);
+        for (int i = 0; i < edges; i++) {
+            final boolean back = i % 100 == 0;
+            cyclicGuavaGraph.putEdge(back ? targets[i] : sources[i], back ? sources[i] : targets[i]);
+            cyclicBuilder.putEdge(back ? targets[i] : sources[i], back ? sources[i] : targets[i]);
+        }
+        cyclicIndexedGraph = cyclicBuilder.build();
+    }
+
+    @Benchmark
+    public List<Integer> guavaSort() {
+        return TopologicalSort.topologicalSort(guavaGraph, Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public List<Integer> indexedSort() {
+        return TopologicalSort.topologicalSort(indexedGraph, nodeList);
+    }
+
+    /**
+     * Building the graph is part of every sort in {@link net.neoforged.fml.loading.ModSorter}.
+     */
+    @Benchmark
+    public List<Integer> indexedBuildAndSort() {
+        final IndexedGraph.Builder builder = IndexedGraph.builder(nodes);
+        for (int i = 0; i < sources.length; i++) {
+            builder.putEdge(sources[i], targets[i]);
+        }
+        return TopologicalSort.topologicalSort(builder.build(), nodeList);
+    }
+
+    /**
+     * Includes converting the Guava graph, as done when a sort of a Guava graph finds a cycle.
+     */
+    @Benchmark
+    public Set<Set<Integer>> stronglyConnectedComponentDetector() {
+        return new StronglyConnectedComponentDetector<>(cyclicGuavaGraph).getComponents();
+    }
+
+    @Benchmark
+    public List<int[]> indexedStronglyConnectedComponents() {
+        return cyclicIndexedGraph.stronglyConnectedComponents();
+    }
+}
@@ -19,6 +19,8 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.google.common.base.Stopwatch;
+import net.neoforged.fml.loading.profiling.DeferredWorkEvent;
+import net.neoforged.fml.loading.profiling.StartupTrace;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -57,7 +59,7 @@ public class DeferredWorkQueue
         LOGGER.debug(LOADING, "Dispatching synchronous work for work queue {}: {} jobs", modLoadingStage, tasks.size());
         RuntimeException aggregate = new RuntimeException();
         Stopwatch timer = Stopwatch.createStarted();
-        tasks.forEach(t -> makeRunnable(t, Runnable::run, aggregate));
+        tasks.forEach(t -> makeRunnable(t, modLoadingStage, Runnable::run, aggregate));
         timer.stop();
         if (aggregate.getSuppressed().length > 0) {
             LOGGER.fatal(
@@ -72,15 +74,22 @@ public class DeferredWorkQueue
         }
     }
 
-    private static void makeRunnable(TaskInfo ti, Executor executor, RuntimeException aggregate) {
+    private static void makeRunnable(TaskInfo ti, ModLoadingStage stage, Executor executor, RuntimeException aggregate) {
         executor.execute(() -> {
             Stopwatch timer = Stopwatch.createStarted();
+            final DeferredWorkEvent event = new DeferredWorkEvent();
+            event.begin();
             ModLoadingContext.get().setActiveContainer(ti.owner);
-            try {
+            try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.DEFERRED_WORK, ti.owner.getModId())) {
                 ti.future.exceptionally(t -> captureException(ti.owner.getModId(), aggregate, t));
                 ti.task.run();
             } finally {
                 ModLoadingContext.get().setActiveContainer(null);
+                if (event.shouldCommit()) {
+                    event.modId = ti.owner.getModId();
+                    event.stage = stage.name();
+                    event.commit();
+                }
             }
             timer.stop();
             if (timer.elapsed(TimeUnit.SECONDS) >= 1) {
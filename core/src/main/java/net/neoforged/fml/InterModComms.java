@@ -5,6 +5,7 @@
 
 package net.neoforged.fml;
 
+import net.neoforged.fml.loading.profiling.IMCDeliveryEvent;
 
 import java.util.Iterator;
 import java.util.Spliterator;
@@ -150,7 +151,18 @@ public class InterModComms
                 next = this.iterator.next();
             }
             while (!methodFilter.test(next.method));
-            action.accept(next);
+            final IMCDeliveryEvent event = new IMCDeliveryEvent();
+            event.begin();
+            try {
+                action.accept(next);
+            } finally {
+                if (event.shouldCommit()) {
+                    event.senderModId = next.senderModId;
+                    event.modId = next.modId;
+                    event.method = next.method;
+                    event.commit();
+                }
+            }
             this.iterator.remove();
             return true;
         }
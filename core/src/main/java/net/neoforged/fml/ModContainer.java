@@ -11,6 +11,8 @@ import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.event.IModBusEvent;
+import net.neoforged.fml.loading.profiling.ModEventDispatchEvent;
+import net.neoforged.fml.loading.profiling.StartupTrace;
 import net.neoforged.fml.loading.progress.ProgressMeter;
 import net.neoforged.neoforgespi.language.IModInfo;
 import org.apache.logging.log4j.LogManager;
@@ -188,13 +190,18 @@ public abstract class ModContainer
         IEventBus bus = getEventBus();
         if (bus == null) return;
 
-        try {
+        final ModEventDispatchEvent dispatch = new ModEventDispatchEvent();
+        dispatch.begin();
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.EVENT, this.getModId())) {
+            span.arg("event", e.getClass().getName());
             LOGGER.trace(LOADING, "Firing event for modid {} : {}", this.getModId(), e);
             bus.post(e);
             LOGGER.trace(LOADING, "Fired event for modid {} : {}", this.getModId(), e);
         } catch (Throwable t) {
             LOGGER.error(LOADING,"Caught exception during event {} dispatch for modid {}", e, this.getModId(), t);
             throw new ModLoadingException(modInfo, modLoadingStage, "fml.modloading.errorduringevent", t);
+        } finally {
+            commitDispatch(dispatch, e, null);
         }
     }
 
@@ -206,13 +213,27 @@ public abstract class ModContainer
         IEventBus bus = getEventBus();
         if (bus == null) return;
 
-        try {
+        final ModEventDispatchEvent dispatch = new ModEventDispatchEvent();
+        dispatch.begin();
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.EVENT, this.getModId())) {
+            span.arg("event", e.getClass().getName()).arg("phase", phase);
             LOGGER.trace(LOADING, "Firing event for phase {} for modid {} : {}", phase, this.getModId(), e);
             bus.post(phase, e);
             LOGGER.trace(LOADING, "Fired event for phase {} for modid {} : {}", phase, this.getModId(), e);
         } catch (Throwable t) {
             LOGGER.error(LOADING,"Caught exception during event {} dispatch for modid {}", e, this.getModId(), t);
             throw new ModLoadingException(modInfo, modLoadingStage, "fml.modloading.errorduringevent", t);
+        } finally {
+            commitDispatch(dispatch, e, phase);
+        }
+    }
+
+    private void commitDispatch(final ModEventDispatchEvent dispatch, final Event e, @Nullable final EventPriority phase) {
+        if (dispatch.shouldCommit()) {
+            dispatch.modId = this.getModId();
+            dispatch.eventClass = e.getClass();
+            dispatch.phase = phase != null ? phase.name() : null;
+            dispatch.commit();
         }
     }
 }
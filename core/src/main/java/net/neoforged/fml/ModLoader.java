@@ -17,6 +17,8 @@ import net.neoforged.fml.loading.LoadingModList;
 import net.neoforged.fml.loading.moddiscovery.InvalidModIdentifier;
 import net.neoforged.fml.loading.moddiscovery.ModFileInfo;
 import net.neoforged.fml.loading.moddiscovery.ModInfo;
+import net.neoforged.fml.loading.profiling.LifecycleStateEvent;
+import net.neoforged.fml.loading.profiling.StartupTrace;
 import net.neoforged.fml.loading.progress.ProgressMeter;
 import net.neoforged.fml.loading.progress.StartupNotificationManager;
 import net.neoforged.neoforgespi.language.IModInfo;
@@ -200,6 +202,7 @@ public class ModLoader
         stateList.forEach(mls->dispatchAndHandleError(mls, syncExecutor, parallelExecutor, periodicTask, progress));
         statusConsumer.ifPresent(c->c.accept(String.format("Mod loading complete - %d mods loaded", this.modList.size())));
         progress.complete();
+        StartupTrace.finish();
     }
 
     private void dispatchAndHandleError(IModLoadingState state, ModWorkManager.DrivenExecutor syncExecutor, Executor parallelExecutor, final Runnable ticker, final ProgressMeter progressBar) {
@@ -208,9 +211,17 @@ public class ModLoader
             return;
         }
         progressBar.label(progressBar.name()+ " working");
-        syncExecutor.drive(ticker);
-        state.inlineRunnable().ifPresent(a->this.handleInlineTransition(a, state, syncExecutor, ticker));
-        state.buildTransition(syncExecutor, parallelExecutor, progressBar).ifPresent(t->waitForTransition(state, syncExecutor, ticker, t));
+        final LifecycleStateEvent event = new LifecycleStateEvent();
+        event.begin();
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.STATE, state.name())) {
+            syncExecutor.drive(ticker);
+            state.inlineRunnable().ifPresent(a->this.handleInlineTransition(a, state, syncExecutor, ticker));
+            state.buildTransition(syncExecutor, parallelExecutor, progressBar).ifPresent(t->waitForTransition(state, syncExecutor, ticker, t));
+        }
+        if (event.shouldCommit()) {
+            event.state = state.name();
+            event.commit();
+        }
         completedStates.add(state);
     }
 
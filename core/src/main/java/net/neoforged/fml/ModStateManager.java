@@ -5,19 +5,21 @@
 
 package net.neoforged.fml;
 
-import com.google.common.graph.GraphBuilder;
 import cpw.mods.modlauncher.util.ServiceLoaderUtils;
 import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.toposort.IndexedGraph;
 import net.neoforged.fml.loading.toposort.TopologicalSort;
 
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-@SuppressWarnings("UnstableApiUsage")
 public class ModStateManager {
     static ModStateManager INSTANCE;
     private final EnumMap<ModLoadingPhase, List<IModLoadingState>> stateMap;
+    // The states are fixed once the providers are loaded, so their order and lookup are only computed once
+    private final EnumMap<ModLoadingPhase, List<IModLoadingState>> sortedStates = new EnumMap<>(ModLoadingPhase.class);
+    private final Map<String, IModLoadingState> statesByName;
 
     public ModStateManager() {
         INSTANCE = this;
@@ -26,26 +28,42 @@ public class ModStateManager {
                 .map(IModStateProvider::getAllStates)
                 .<IModLoadingState>mapMulti(Iterable::forEach)
                 .collect(Collectors.groupingBy(IModLoadingState::phase, ()->new EnumMap<>(ModLoadingPhase.class), Collectors.toUnmodifiableList()));
+        this.statesByName = new HashMap<>();
+        // the first state with a name wins, as it did for a search in phase order
+        this.stateMap.values().forEach(states -> states.forEach(state -> this.statesByName.putIfAbsent(state.name(), state)));
     }
 
     public List<IModLoadingState> getStates(final ModLoadingPhase phase) {
+        synchronized (sortedStates) {
+            return sortedStates.computeIfAbsent(phase, this::sortStates);
+        }
+    }
+
+    private List<IModLoadingState> sortStates(final ModLoadingPhase phase) {
         var nodes = stateMap.get(phase);
         var lookup = nodes.stream().collect(Collectors.toMap(IModLoadingState::name, Function.identity()));
 
-        var graph = GraphBuilder.directed().allowsSelfLoops(false).<IModLoadingState>build();
-        var dummy = ModLoadingState.empty("", "", phase);
-        nodes.forEach(graph::addNode);
-        graph.addNode(dummy);
-        nodes.forEach(n->graph.putEdge(lookup.getOrDefault(n.previous(), dummy), n));
-        return TopologicalSort.topologicalSort(graph, Comparator.comparingInt(nodes::indexOf)).stream().filter(st->st!=dummy).toList();
+        // Id 0 is the root every state without a known predecessor follows, the states keep their list order after it
+        var ids = new IdentityHashMap<IModLoadingState, Integer>();
+        for (int i = 0; i < nodes.size(); i++) {
+            ids.put(nodes.get(i), i + 1);
+        }
+        var graph = IndexedGraph.builder(nodes.size() + 1);
+        for (int i = 0; i < nodes.size(); i++) {
+            var previous = lookup.get(nodes.get(i).previous());
+            graph.putEdge(previous == null ? 0 : ids.get(previous), i + 1);
+        }
+        var sortNodes = new ArrayList<IModLoadingState>(nodes.size() + 1);
+        sortNodes.add(null);
+        sortNodes.addAll(nodes);
+        return TopologicalSort.topologicalSort(graph.build(), sortNodes).stream().skip(1).toList();
     }
 
     public IModLoadingState findState(final String stateName) {
-        return stateMap.values()
-                .stream()
-                .flatMap(Collection::stream)
-                .filter(mls -> mls.name().equals(stateName))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Unknown IModLoadingState: " + stateName));
+        final IModLoadingState state = statesByName.get(stateName);
+        if (state == null) {
+            throw new IllegalArgumentException("Unknown IModLoadingState: " + stateName);
+        }
+        return state;
     }
 }
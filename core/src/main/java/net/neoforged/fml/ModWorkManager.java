@@ -6,6 +6,7 @@
 package net.neoforged.fml;
 
 import net.neoforged.fml.loading.FMLConfig;
+import net.neoforged.fml.loading.bench.BenchPhases;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -105,7 +106,7 @@ public class ModWorkManager {
     }
 
     private static ForkJoinWorkerThread newForkJoinWorkerThread(ForkJoinPool pool) {
-        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        ForkJoinWorkerThread thread = BenchPhases.newWorkerThread(pool);
         thread.setName("modloading-worker-" + thread.getPoolIndex());
         // The default sets it to the SystemClassloader, so copy the current one.
         thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
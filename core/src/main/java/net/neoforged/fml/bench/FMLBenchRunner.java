@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.bench;
+
+import net.neoforged.fml.ModLoader;
+import net.neoforged.fml.ModWorkManager;
+import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.bench.BenchPhases;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the {@code fmlbench} launch target. Drives the mod loading phases the game would normally run and
+ * prints the time and allocation of each loader phase.
+ */
+public final class FMLBenchRunner {
+    private FMLBenchRunner() {}
+
+    public static void main(final String[] args) {
+        final ModWorkManager.DrivenExecutor syncExecutor = ModWorkManager.syncExecutor();
+        final Runnable periodicTask = () -> {};
+        // Discovery, validation and sort run in the launcher before this target starts, so they are timed as one
+        BenchPhases.record("launch, discovery, validation and sort", TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime()));
+        BenchPhases.time("class scan", () -> FMLLoader.backgroundScanHandler.waitForScanToComplete(periodicTask));
+        final ModLoader modLoader = BenchPhases.time("mod loader setup", ModLoader::get);
+        BenchPhases.time("gather and initialize mods", () -> modLoader.gatherAndInitializeMods(syncExecutor, ModWorkManager.parallelExecutor(), periodicTask));
+        BenchPhases.time("load mods", () -> modLoader.loadMods(syncExecutor, ModWorkManager.parallelExecutor(), periodicTask));
+        BenchPhases.time("finish mods", () -> modLoader.finishMods(syncExecutor, ModWorkManager.parallelExecutor(), periodicTask));
+        BenchPhases.report(System.out);
+    }
+}
@@ -13,6 +13,7 @@ import com.electronwill.nightconfig.core.io.WritingMode;
 import com.mojang.logging.LogUtils;
 import net.neoforged.fml.loading.FMLConfig;
 import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.profiling.ConfigLoadEvent;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 
@@ -150,6 +151,8 @@ public class ConfigFileTypeHandler {
             // Force the regular classloader onto the special thread
             Thread.currentThread().setContextClassLoader(realClassLoader);
             if (!this.modConfig.getSpec().isCorrecting()) {
+                final ConfigLoadEvent event = new ConfigLoadEvent();
+                event.begin();
                 try
                 {
                     this.commentedFileConfig.load();
@@ -168,6 +171,7 @@ public class ConfigFileTypeHandler {
                 LOGGER.debug(CONFIG, "Config file {} changed, sending notifies", this.modConfig.getFileName());
                 this.modConfig.getSpec().afterReload();
                 IConfigEvent.reloading(this.modConfig).post();
+                this.modConfig.commitLoadEvent(event, true);
             }
         }
     }
@@ -8,6 +8,8 @@ package net.neoforged.fml.config;
 import com.electronwill.nightconfig.core.CommentedConfig;
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.profiling.ConfigLoadEvent;
+import net.neoforged.fml.loading.profiling.StartupTrace;
 import java.nio.file.Files;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -74,11 +76,17 @@ public class ConfigTracker {
 
     private void openConfig(final ModConfig config, final Path configBasePath, @Nullable Path configOverrideBasePath) {
         LOGGER.trace(CONFIG, "Loading config file type {} at {} for {}", config.getType(), config.getFileName(), config.getModId());
-        final Path basePath = resolveBasePath(config, configBasePath, configOverrideBasePath);
-        final CommentedFileConfig configData = ConfigFileTypeHandler.TOML.reader(basePath).apply(config);
-        config.setConfigData(configData);
-        IConfigEvent.loading(config).post();
-        config.save();
+        final ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.CONFIG, config.getFileName())) {
+            span.arg("mod", config.getModId()).arg("type", config.getType());
+            final Path basePath = resolveBasePath(config, configBasePath, configOverrideBasePath);
+            final CommentedFileConfig configData = ConfigFileTypeHandler.TOML.reader(basePath).apply(config);
+            config.setConfigData(configData);
+            IConfigEvent.loading(config).post();
+            config.save();
+        }
+        config.commitLoadEvent(event, false);
     }
 
     private void closeConfig(final ModConfig config) {
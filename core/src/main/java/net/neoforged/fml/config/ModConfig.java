@@ -10,6 +10,7 @@ import com.electronwill.nightconfig.core.file.FileConfig;
 import com.electronwill.nightconfig.toml.TomlFormat;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.loading.StringUtils;
+import net.neoforged.fml.loading.profiling.ConfigLoadEvent;
 
 import java.io.ByteArrayInputStream;
 import java.nio.file.Path;
@@ -75,8 +76,21 @@ public class ModConfig
     }
 
     public void acceptSyncedConfig(byte[] bytes) {
+        final ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
         setConfigData(TomlFormat.instance().createParser().parse(new ByteArrayInputStream(bytes)));
         IConfigEvent.reloading(this).post();
+        commitLoadEvent(event, true);
+    }
+
+    void commitLoadEvent(final ConfigLoadEvent event, final boolean reload) {
+        if (event.shouldCommit()) {
+            event.file = getFileName();
+            event.modId = getModId();
+            event.type = getType().name();
+            event.reload = reload;
+            event.commit();
+        }
     }
 
     public enum Type {
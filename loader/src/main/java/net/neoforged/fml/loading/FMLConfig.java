@@ -35,7 +35,15 @@ public class FMLConfig
         EARLY_WINDOW_FBSCALE("earlyWindowFBScale", 1, "Early window framebuffer scale"),
         EARLY_WINDOW_MAXIMIZED("earlyWindowMaximized", Boolean.FALSE, "Early window starts maximized"),
         EARLY_WINDOW_SKIP_GL_VERSIONS("earlyWindowSkipGLVersions", List.of(), "Skip specific GL versions, may help with buggy graphics card drivers"),
-        EARLY_WINDOW_SQUIR("earlyWindowSquir", Boolean.FALSE, "Squir?")
+        EARLY_WINDOW_SQUIR("earlyWindowSquir", Boolean.FALSE, "Squir?"),
+        SCAN_CACHE("scanCache", Boolean.TRUE, "Cache the class scan results of unchanged mod jars between launches"),
+        SCAN_TICK_INTERVAL("scanTickInterval", 50, "Milliseconds between early window updates while waiting for the mod scan to complete"),
+        CONCURRENT_MOD_DISCOVERY("concurrentModDiscovery", Boolean.TRUE, "Run the built-in mod locators concurrently during mod discovery, limited by maxThreads. Other locators always run one after another"),
+        JIJ_CACHE("jijCache", Boolean.FALSE, "Extract embedded jar-in-jar libraries to the cache directory once and load them from there on later launches"),
+        DISCOVERY_SNAPSHOT("discoverySnapshot", Boolean.FALSE, "Remember which jar-in-jar libraries were selected and reuse that choice while the located mod files are unchanged"),
+        METADATA_CACHE("metadataCache", Boolean.TRUE, "Cache the parsed mods.toml and coremods.json of unchanged mod jars between launches"),
+        INCREMENTAL_EXPLODED_SCAN("incrementalExplodedScan", Boolean.TRUE, "Only rescan the changed class files of exploded mod directories in development"),
+        MINECRAFT_SCAN_INDEX("minecraftScanIndex", Boolean.TRUE, "Store the scan results of the Minecraft jar in the libraries directory, keyed by game version and jar content")
         ;
 
         private final String entry;
@@ -23,7 +23,8 @@ public enum FMLPaths
     GAMEDIR(),
     MODSDIR("mods"),
     CONFIGDIR("config"),
-    FMLCONFIG(false, CONFIGDIR, "fml.toml");
+    FMLCONFIG(false, CONFIGDIR, "fml.toml"),
+    CACHEDIR(".cache", "fml");
 
     private static final Logger LOGGER = LogUtils.getLogger();
     private final Path relativePath;
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading;
+
+import cpw.mods.jarhandling.JarContents;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands jars opened during transformer discovery over to the mod locators, so a jar in the mods folder has its
+ * central directory and manifest read once per launch instead of once per pass.
+ * <p>
+ * Each registered jar can be taken once. A jar that changed on disk since it was registered is not handed out.
+ */
+public final class JarContentsRegistry {
+    private static final Map<Path, Entry> CONTENTS = new ConcurrentHashMap<>();
+
+    private record Entry(JarContents contents, long size, long lastModified) {}
+
+    private JarContentsRegistry() {}
+
+    static void register(final Path path, final JarContents contents) {
+        try {
+            CONTENTS.put(key(path), new Entry(contents, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+        } catch (IOException ignored) {
+            // Simply not shared, the locator will open the jar itself
+        }
+    }
+
+    /**
+     * {@return the contents opened for {@code path} during transformer discovery, removing them from the registry}
+     */
+    public static Optional<JarContents> take(final Path path) {
+        final Path key = key(path);
+        final Entry entry = CONTENTS.remove(key);
+        if (entry == null) return Optional.empty();
+        try {
+            if (Files.size(key) != entry.size() || Files.getLastModifiedTime(key).toMillis() != entry.lastModified()) return Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.contents());
+    }
+
+    /**
+     * Drops all contents that were not taken, once mod discovery no longer needs them.
+     */
+    public static void clear() {
+        CONTENTS.clear();
+    }
+
+    private static Path key(final Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -13,7 +13,6 @@ import net.neoforged.neoforgespi.language.IModLanguageProvider;
 import net.neoforged.fml.loading.moddiscovery.ExplodedDirectoryLocator;
 import net.neoforged.fml.loading.moddiscovery.ModFile;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.slf4j.Logger;
 
@@ -95,7 +94,7 @@ public class LanguageLoadingProvider
             }
             LOGGER.debug(LogMarkers.CORE, "Found language provider {}, version {}", lp.name(), impl);
             ImmediateWindowHandler.updateProgress("Loaded language provider "+lp.name()+ " " + impl);
-            languageProviderMap.put(lp.name(), new ModLanguageWrapper(lp, new DefaultArtifactVersion(impl)));
+            languageProviderMap.put(lp.name(), new ModLanguageWrapper(lp, VersionCache.version(impl)));
         });
     }
 
@@ -136,7 +135,7 @@ public class LanguageLoadingProvider
             LOGGER.error(LogMarkers.LOADING,"Missing language {} version {} wanted by {}", modLoader, modLoaderVersion, languageFileName);
             throw new EarlyLoadingException("Missing language "+modLoader, null, Collections.singletonList(new EarlyLoadingException.ExceptionData("fml.language.missingversion", modLoader, modLoaderVersion, languageFileName, "null")));
         }
-        if (!VersionSupportMatrix.testVersionSupportMatrix(modLoaderVersion, modLoader, "languageloader", (llid, range) -> range.containsVersion(mlw.getVersion()))) {
+        if (!VersionSupportMatrix.testVersionSupportMatrix(modLoaderVersion, modLoader, "languageloader", (llid, range) -> VersionCache.containsVersion(range, mlw.getVersion()))) {
             LOGGER.error(LogMarkers.LOADING,"Missing language {} version {} wanted by {}, found {}", modLoader, modLoaderVersion, languageFileName, mlw.getVersion());
             throw new EarlyLoadingException("Missing language "+ modLoader + " matching range "+modLoaderVersion + " found "+mlw.getVersion(), null, Collections.singletonList(new EarlyLoadingException.ExceptionData("fml.language.missingversion", modLoader, modLoaderVersion, languageFileName, mlw.getVersion())));
         }
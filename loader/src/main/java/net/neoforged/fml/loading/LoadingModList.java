@@ -5,16 +5,15 @@
 
 package net.neoforged.fml.loading;
 
-import cpw.mods.modlauncher.api.LamdbaExceptionUtils;
 import net.neoforged.fml.loading.mixin.DeferredMixinConfigRegistration;
 import net.neoforged.fml.loading.moddiscovery.BackgroundScanHandler;
 import net.neoforged.fml.loading.moddiscovery.ModFile;
 import net.neoforged.fml.loading.moddiscovery.ModFileInfo;
+import net.neoforged.fml.loading.moddiscovery.ModFileResourceIndex;
 import net.neoforged.fml.loading.moddiscovery.ModInfo;
 import net.neoforged.neoforgespi.locating.IModFile;
 
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -22,7 +21,6 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +35,8 @@ public class LoadingModList
     private final Map<String, ModFileInfo> fileById;
     private final List<EarlyLoadingException> preLoadErrors;
     private List<IModFile> brokenFiles;
+    // Built on the first resource lookup, once the mod file list is final
+    private volatile ModFileResourceIndex resourceIndex;
 
     private LoadingModList(final List<ModFile> modFiles, final List<ModInfo> sortedList)
     {
@@ -95,9 +95,9 @@ public class LoadingModList
     public void addForScanning(BackgroundScanHandler backgroundScanHandler)
     {
         backgroundScanHandler.setLoadingModList(this);
-        modFiles.stream()
+        backgroundScanHandler.submitForScanning(modFiles.stream()
                 .map(ModFileInfo::getFile)
-                .forEach(backgroundScanHandler::submitForScanning);
+                .toList());
     }
 
     public List<ModFileInfo> getModFiles()
@@ -107,11 +107,8 @@ public class LoadingModList
 
     public Path findResource(final String className)
     {
-        for (ModFileInfo mf : modFiles) {
-            final Path resource = mf.getFile().findResource(className);
-            if (Files.exists(resource)) return resource;
-        }
-        return null;
+        final ModFileInfo owner = getResourceIndex().findOwner(className);
+        return owner != null ? owner.getFile().findResource(className) : null;
     }
 
     public Enumeration<URL> findAllURLsForResource(final String resName) {
@@ -122,38 +119,32 @@ public class LoadingModList
         } else {
             resourceName = resName;
         }
+        final Iterator<ModFileInfo> owners = getResourceIndex().findOwners(resourceName).iterator();
         return new Enumeration<URL>() {
-            private final Iterator<ModFileInfo> modFileIterator = modFiles.iterator();
-            private URL next;
             @Override
             public boolean hasMoreElements() {
-                if (next!=null) return true;
-                next = findNextURL();
-                return next != null;
+                return owners.hasNext();
             }
 
             @Override
             public URL nextElement() {
-                if (next == null) {
-                    next = findNextURL();
-                    if (next == null) throw new NoSuchElementException();
-                }
-                URL result = next;
-                next = null;
-                return result;
+                final ModFileInfo next = owners.next();
+                return ModJarURLHandler.toURL(next.getMods().get(0).getModId(), resourceName);
             }
+        };
+    }
 
-            private URL findNextURL() {
-                while (modFileIterator.hasNext()) {
-                    final ModFileInfo next = modFileIterator.next();
-                    final Path resource = next.getFile().findResource(resourceName);
-                    if (Files.exists(resource)) {
-                        return LamdbaExceptionUtils.uncheck(()->new URL("modjar://" + next.getMods().get(0).getModId() + "/" + resourceName));
-                    }
+    private ModFileResourceIndex getResourceIndex() {
+        ModFileResourceIndex index = resourceIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = resourceIndex;
+                if (index == null) {
+                    resourceIndex = index = ModFileResourceIndex.of(List.copyOf(modFiles));
                 }
-                return null;
             }
-        };
+        }
+        return index;
     }
 
     public ModFileInfo getModFileById(String modid)
@@ -6,6 +6,7 @@
 package net.neoforged.fml.loading;
 
 import com.mojang.logging.LogUtils;
+import cpw.mods.jarhandling.JarContents;
 import cpw.mods.jarhandling.JarContentsBuilder;
 import cpw.mods.jarhandling.JarMetadata;
 import cpw.mods.jarhandling.SecureJar;
@@ -99,9 +100,15 @@ public class ModDirTransformerDiscoverer implements ITransformerDiscoveryService
         if (!path.toString().endsWith(".jar")) return false;
         if (LamdbaExceptionUtils.uncheck(() -> Files.size(path)) == 0) return false;
 
-        JarMetadata metadata = JarMetadata.from(new JarContentsBuilder().paths(path).build());
-        return metadata.providers().stream()
+        JarContents contents = new JarContentsBuilder().paths(path).build();
+        JarMetadata metadata = JarMetadata.from(contents);
+        boolean serviceLayer = metadata.providers().stream()
             .map(SecureJar.Provider::serviceName)
             .anyMatch(SERVICES::contains);
+        if (!serviceLayer) {
+            // The mods folder locator will open this jar again, let it reuse what we just read
+            JarContentsRegistry.register(path, contents);
+        }
+        return serviceLayer;
     }
 }
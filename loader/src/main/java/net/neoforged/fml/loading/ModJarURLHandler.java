@@ -6,23 +6,54 @@
 package net.neoforged.fml.loading;
 
 import com.mojang.logging.LogUtils;
+import cpw.mods.jarhandling.SecureJar;
 import cpw.mods.modlauncher.api.LamdbaExceptionUtils;
 import org.slf4j.Logger;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Manifest;
 
 public class ModJarURLHandler extends URLStreamHandler
 {
     private static final Logger LOGGER = LogUtils.getLogger();
+    private static final ModJarURLHandler INSTANCE = new ModJarURLHandler();
+    // The jars of the mods of the current loading mod list, by mod id
+    private static volatile JarLookup jarLookup;
+
+    private record JarLookup(LoadingModList modList, Map<String, Optional<SecureJar>> jars) {}
+
+    /**
+     * Builds a {@code modjar://modid/path} URL that opens through this handler, whether or not the protocol is
+     * registered with the JVM.
+     */
+    public static URL toURL(final String modid, final String path) {
+        return LamdbaExceptionUtils.uncheck(() -> new URL("modjar", modid, -1, path.startsWith("/") ? path : "/" + path, INSTANCE));
+    }
+
+    static Optional<SecureJar> findJar(final String modid) {
+        final LoadingModList modList = LoadingModList.get();
+        if (modList == null) return Optional.empty();
+        JarLookup lookup = jarLookup;
+        if (lookup == null || lookup.modList() != modList) {
+            lookup = new JarLookup(modList, new ConcurrentHashMap<>());
+            jarLookup = lookup;
+        }
+        return lookup.jars().computeIfAbsent(modid, id -> Optional.ofNullable(modList.getModFileById(id)).map(info -> info.getFile().getSecureJar()));
+    }
+
     // modjar://modid/path/to/file
     @Override
     protected URLConnection openConnection(URL url) {
@@ -43,6 +74,7 @@ public class ModJarURLHandler extends URLStreamHandler
 
     static class ModJarURLConnection extends URLConnection {
         private Path resource;
+        private BasicFileAttributes attributes;
         private String modpath;
         private String modid;
         private Optional<Manifest> manifest;
@@ -52,22 +84,28 @@ public class ModJarURLHandler extends URLStreamHandler
         }
 
         @Override
-        public void connect()
+        public void connect() throws IOException
         {
-//            if (resource == null) {
-//                modid = url.getHost();
-//                // trim first char
-//                modpath = url.getPath().substring(1);
-//                resource = FMLLoader.getLoadingModList().getModFileById(modid).getFile().findResource(modpath);
-//                manifest = FMLLoader.getLoadingModList().getModFileById(modid).getManifest();
-//            }
+            if (connected) return;
+            modid = url.getHost();
+            // trim first char
+            modpath = url.getPath().startsWith("/") ? url.getPath().substring(1) : url.getPath();
+            final SecureJar jar = findJar(modid).orElseThrow(() -> new FileNotFoundException("Unknown mod " + modid + " for " + url));
+            resource = jar.getPath(modpath);
+            try {
+                attributes = Files.readAttributes(resource, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                throw new FileNotFoundException(url.toString());
+            }
+            manifest = Optional.ofNullable(jar.moduleDataProvider().getManifest());
+            connected = true;
         }
 
         @Override
         public InputStream getInputStream() throws IOException
         {
             connect();
-            LOGGER.trace(LogMarkers.CORE, "Loading modjar URL {} got resource {} {}", url, resource, resource != null ? Files.exists(resource) : "missing");
+            LOGGER.trace(LogMarkers.CORE, "Loading modjar URL {} got resource {}", url, resource);
             return Files.newInputStream(resource);
         }
 
@@ -75,16 +113,26 @@ public class ModJarURLHandler extends URLStreamHandler
         public long getContentLengthLong() {
             try {
                 connect();
-                return Files.size(resource);
+                return attributes.size();
             } catch (IOException e) {
                 return -1L;
             }
         }
 
+        @Override
+        public long getLastModified() {
+            try {
+                connect();
+                return attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                return 0L;
+            }
+        }
+
         // Used to cache protectiondomains by "top level object" aka the modid
         @Override
         public URL getURL() {
-            return LamdbaExceptionUtils.uncheck(()->new URL("modjar://"+modid));
+            return LamdbaExceptionUtils.uncheck(()->new URL("modjar", url.getHost(), -1, "", INSTANCE));
         }
 
         public Optional<Manifest> getManifest() {
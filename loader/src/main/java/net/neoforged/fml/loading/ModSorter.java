@@ -5,8 +5,6 @@
 
 package net.neoforged.fml.loading;
 
-import com.google.common.graph.GraphBuilder;
-import com.google.common.graph.MutableGraph;
 import com.mojang.logging.LogUtils;
 import cpw.mods.jarhandling.SecureJar;
 import net.neoforged.fml.loading.moddiscovery.MinecraftLocator;
@@ -15,13 +13,13 @@ import net.neoforged.fml.loading.moddiscovery.ModFile;
 import net.neoforged.fml.loading.moddiscovery.ModFileInfo;
 import net.neoforged.fml.loading.moddiscovery.ModInfo;
 import net.neoforged.fml.loading.toposort.CyclePresentException;
+import net.neoforged.fml.loading.toposort.IndexedGraph;
 import net.neoforged.fml.loading.toposort.TopologicalSort;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.slf4j.Logger;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.jar.Manifest;
 import java.util.stream.Collectors;
@@ -69,29 +67,30 @@ public class ModSorter
         }
     }
 
-    @SuppressWarnings("UnstableApiUsage")
     private void sort()
     {
-        // lambdas are identity based, so sorting them is impossible unless you hold reference to them
-        final MutableGraph<ModFileInfo> graph = GraphBuilder.directed().build();
-        AtomicInteger counter = new AtomicInteger();
-        Map<ModFileInfo, Integer> infos = modFiles.stream()
+        // Mod files get dense ids in mod list order, which also breaks ties between files that can load in any order
+        final List<ModFileInfo> infos = modFiles.stream()
                 .map(ModFile::getModFileInfo)
                 .filter(ModFileInfo.class::isInstance)
                 .map(ModFileInfo.class::cast)
-                .collect(toMap(Function.identity(), e -> counter.incrementAndGet()));
-        infos.keySet().forEach(graph::addNode);
+                .toList();
+        final Map<ModFileInfo, Integer> ids = new HashMap<>(infos.size() * 2);
+        for (int i = 0; i < infos.size(); i++) {
+            ids.put(infos.get(i), i);
+        }
+        final IndexedGraph.Builder graph = IndexedGraph.builder(infos.size());
         modFiles.stream()
                 .map(ModFile::getModInfos)
                 .<IModInfo>mapMulti(Iterable::forEach)
                 .map(IModInfo::getDependencies)
                 .<IModInfo.ModVersion>mapMulti(Iterable::forEach)
-                .forEach(dep -> addDependency(graph, dep));
+                .forEach(dep -> addDependency(graph, ids, dep));
 
         final List<ModFileInfo> sorted;
         try
         {
-            sorted = TopologicalSort.topologicalSort(graph, Comparator.comparing(infos::get));
+            sorted = TopologicalSort.topologicalSort(graph.build(), infos);
         }
         catch (CyclePresentException e)
         {
@@ -118,8 +117,7 @@ public class ModSorter
                 .collect(toList());
     }
 
-    @SuppressWarnings("UnstableApiUsage")
-    private void addDependency(MutableGraph<ModFileInfo> topoGraph, IModInfo.ModVersion dep)
+    private void addDependency(IndexedGraph.Builder topoGraph, Map<ModFileInfo, Integer> ids, IModInfo.ModVersion dep)
     {
         final ModFileInfo self = (ModFileInfo)dep.getOwner().getOwningFile();
         final IModInfo targetModInfo = modIdNameLookup.get(dep.getModId());
@@ -127,9 +125,12 @@ public class ModSorter
         if (targetModInfo == null || !(targetModInfo.getOwningFile() instanceof final ModFileInfo target)) return;
         if (self == target)
             return; // in case a jar has two mods that have dependencies between
+        final Integer selfId = ids.get(self);
+        final Integer targetId = ids.get(target);
+        if (selfId == null || targetId == null) return;
         switch (dep.getOrdering()) {
-            case BEFORE -> topoGraph.putEdge(self, target);
-            case AFTER -> topoGraph.putEdge(target, self);
+            case BEFORE -> topoGraph.putEdge(selfId, targetId);
+            case AFTER -> topoGraph.putEdge(targetId, selfId);
         }
     }
 
@@ -251,6 +252,6 @@ public class ModSorter
     private boolean modVersionNotContained(final IModInfo.ModVersion mv, final Map<String, ArtifactVersion> modVersions)
     {
         return !(VersionSupportMatrix.testVersionSupportMatrix(mv.getVersionRange(), mv.getModId(), "mod", (modId, range) -> modVersions.containsKey(modId) &&
-                (range.containsVersion(modVersions.get(modId)) || modVersions.get(modId).toString().equals("0.0NONE"))));
+                (VersionCache.containsVersion(range, modVersions.get(modId)) || modVersions.get(modId).toString().equals("0.0NONE"))));
     }
 }
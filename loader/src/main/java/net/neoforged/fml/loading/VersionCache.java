@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading;
+
+import net.neoforged.neoforgespi.language.MavenVersionAdapter;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.VersionRange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide interning of parsed versions and version ranges.
+ * <p>
+ * A mod pack declares the same few versions and ranges over and over, so each distinct string is parsed once
+ * and the parsed objects are shared. {@link DefaultArtifactVersion} keeps its comparable form from parsing, so
+ * comparisons between interned versions don't parse again.
+ * <p>
+ * The returned objects are shared between every caller asking for the same string, including the mods exposing
+ * them through {@link net.neoforged.neoforgespi.language.IModInfo#getVersion()}. Interned versions therefore can't
+ * be changed: their {@link ArtifactVersion#parseVersion(String)} throws. Interned ranges must not be modified.
+ */
+public final class VersionCache {
+    private static final Map<String, ArtifactVersion> VERSIONS = new ConcurrentHashMap<>();
+    private static final Map<String, VersionRange> RANGES = new ConcurrentHashMap<>();
+    // Containment results of the interned ranges, keyed by the string of an interned version
+    private static final Map<VersionRange, Map<String, Boolean>> CONTAINS = new ConcurrentHashMap<>();
+
+    private VersionCache() {}
+
+    /**
+     * {@return the shared parsed form of {@code version}}
+     * The instance is shared with every other caller, so {@link ArtifactVersion#parseVersion(String)} throws
+     * {@link UnsupportedOperationException} on it.
+     */
+    public static ArtifactVersion version(final String version) {
+        return VERSIONS.computeIfAbsent(version, InternedVersion::new);
+    }
+
+    /**
+     * {@return the shared parsed form of the range {@code spec}}
+     * The instance is shared with every other caller and must not be modified.
+     * Invalid specs throw like {@link MavenVersionAdapter#createFromVersionSpec(String)} and are not cached.
+     */
+    public static VersionRange range(final String spec) {
+        return RANGES.computeIfAbsent(spec, s -> {
+            final VersionRange range = MavenVersionAdapter.createFromVersionSpec(s);
+            CONTAINS.putIfAbsent(range, new ConcurrentHashMap<>());
+            return range;
+        });
+    }
+
+    /**
+     * Memoized {@link VersionRange#containsVersion(ArtifactVersion)}. Results are only remembered for ranges from
+     * {@link #range(String)} and versions from {@link #version(String)}, so other arguments are never retained and
+     * are simply checked directly.
+     */
+    public static boolean containsVersion(final VersionRange range, final ArtifactVersion version) {
+        final Map<String, Boolean> results = CONTAINS.get(range);
+        if (results == null) return range.containsVersion(unwrap(version));
+        final String key = version.toString();
+        if (VERSIONS.get(key) != version) return range.containsVersion(unwrap(version));
+        return results.computeIfAbsent(key, k -> range.containsVersion(unwrap(version)));
+    }
+
+    /**
+     * {@return the {@link DefaultArtifactVersion} behind {@code version} if it is interned, so ranges compare it without parsing it again}
+     */
+    private static ArtifactVersion unwrap(final ArtifactVersion version) {
+        return version instanceof InternedVersion interned ? interned.version : version;
+    }
+
+    /**
+     * A parsed version that can't be parsed again. {@link DefaultArtifactVersion} only compares its parsed form with
+     * other instances of itself, so {@link #containsVersion} hands ranges the wrapped version.
+     */
+    private static final class InternedVersion implements ArtifactVersion {
+        private final DefaultArtifactVersion version;
+
+        private InternedVersion(final String version) {
+            this.version = new DefaultArtifactVersion(version);
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return version.getMajorVersion();
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return version.getMinorVersion();
+        }
+
+        @Override
+        public int getIncrementalVersion() {
+            return version.getIncrementalVersion();
+        }
+
+        @Override
+        public int getBuildNumber() {
+            return version.getBuildNumber();
+        }
+
+        @Override
+        public String getQualifier() {
+            return version.getQualifier();
+        }
+
+        @Override
+        public void parseVersion(final String version) {
+            throw new UnsupportedOperationException("Version " + this + " is shared and can't be changed");
+        }
+
+        @Override
+        public int compareTo(final ArtifactVersion other) {
+            return version.compareTo(unwrap(other));
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other || other instanceof ArtifactVersion version && compareTo(version) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return version.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return version.toString();
+        }
+    }
+}
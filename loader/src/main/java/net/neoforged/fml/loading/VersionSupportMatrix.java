@@ -5,9 +5,7 @@
 
 package net.neoforged.fml.loading;
 
-import net.neoforged.neoforgespi.language.MavenVersionAdapter;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.artifact.versioning.VersionRange;
 
 import java.util.ArrayList;
@@ -18,8 +16,8 @@ import java.util.function.BiPredicate;
 public class VersionSupportMatrix {
     private static final HashMap<String, List<ArtifactVersion>> overrideVersions = new HashMap<>();
     static {
-        final ArtifactVersion version = new DefaultArtifactVersion(FMLLoader.versionInfo().mcVersion());
-         if (MavenVersionAdapter.createFromVersionSpec("[1.19.2]").containsVersion(version)) {
+        final ArtifactVersion version = VersionCache.version(FMLLoader.versionInfo().mcVersion());
+         if (VersionCache.range("[1.19.2]").containsVersion(version)) {
              // 1.19.2 is Compatible with 1.19.1
              add("languageloader.javafml", "42");
              add("mod.minecraft",          "1.19.1");
@@ -27,11 +25,11 @@ public class VersionSupportMatrix {
         }
     }
     private static void add(String key, String value) {
-        overrideVersions.computeIfAbsent(key, k -> new ArrayList<>()).add(new DefaultArtifactVersion(value));
+        overrideVersions.computeIfAbsent(key, k -> new ArrayList<>()).add(VersionCache.version(value));
     }
     public static <T> boolean testVersionSupportMatrix(VersionRange declaredRange, String lookupId, String type, BiPredicate<String, VersionRange> standardLookup) {
         if (standardLookup.test(lookupId, declaredRange)) return true;
         List<ArtifactVersion> custom = overrideVersions.get(type +"." +lookupId);
-        return custom == null ? false  : custom.stream().anyMatch(declaredRange::containsVersion);
+        return custom == null ? false  : custom.stream().anyMatch(version -> VersionCache.containsVersion(declaredRange, version));
     }
 }
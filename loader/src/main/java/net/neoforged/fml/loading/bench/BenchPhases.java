@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.bench;
+
+import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.profiling.StartupTrace;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
+
+/**
+ * Records the wall time and allocation of the loader phases when running the {@code fmlbench} launch target.
+ * Outside of it, {@link #time(String, Supplier)} just runs the phase, as a {@link StartupTrace} span, and the
+ * worker hooks do nothing.
+ * <p>
+ * Allocation is counted per thread, for the thread running the phase and the loader's worker threads, which report
+ * themselves through {@link #workerStarted()} and {@link #workerFinished()}. Workers that end during a phase are
+ * counted up to their end, and threads that don't belong to the loader, such as the early window, are not counted.
+ */
+public final class BenchPhases {
+    public static final String LAUNCH_TARGET = "fmlbench";
+    private static final List<Phase> PHASES = new ArrayList<>();
+    // Ids of the live loader worker threads, and the final allocation of the ones that ended
+    private static final Set<Long> WORKERS = ConcurrentHashMap.newKeySet();
+    private static final Map<Long, Long> FINISHED_WORKERS = new ConcurrentHashMap<>();
+    private static volatile AllocationCounter allocation;
+
+    private record Phase(String name, long nanos, long allocatedBytes) {}
+
+    private BenchPhases() {}
+
+    public static boolean isActive() {
+        return LAUNCH_TARGET.equals(FMLLoader.launcherHandlerName());
+    }
+
+    public static void time(final String phase, final Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(final String phase, final Supplier<T> action) {
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.PHASE, phase)) {
+            return isActive() ? measure(phase, action) : action.get();
+        }
+    }
+
+    /**
+     * Records a phase that was timed elsewhere and whose allocation is unknown.
+     */
+    public static void record(final String phase, final long nanos) {
+        synchronized (PHASES) {
+            PHASES.add(new Phase(phase, nanos, -1));
+        }
+    }
+
+    /**
+     * Called by a loader worker thread when it starts, so its allocation counts towards the phases it works for.
+     */
+    public static void workerStarted() {
+        if (!isActive()) return;
+        WORKERS.add(Thread.currentThread().getId());
+    }
+
+    /**
+     * Called by a loader worker thread right before it ends, so its allocation is still counted once it is gone.
+     */
+    public static void workerFinished() {
+        if (!isActive()) return;
+        final long id = Thread.currentThread().getId();
+        if (!WORKERS.remove(id)) return;
+        final long allocated = allocation().currentThreadAllocatedBytes();
+        if (allocated >= 0) FINISHED_WORKERS.put(id, allocated);
+    }
+
+    /**
+     * {@return a new worker thread for {@code pool} that reports itself through {@link #workerStarted()} and {@link #workerFinished()}}
+     * Used instead of {@link ForkJoinPool#defaultForkJoinWorkerThreadFactory} by the loader's pools.
+     */
+    public static ForkJoinWorkerThread newWorkerThread(final ForkJoinPool pool) {
+        return new ForkJoinWorkerThread(pool) {
+            @Override
+            protected void onStart() {
+                super.onStart();
+                workerStarted();
+            }
+
+            @Override
+            protected void onTermination(final Throwable exception) {
+                workerFinished();
+                super.onTermination(exception);
+            }
+        };
+    }
+
+    private static <T> T measure(final String phase, final Supplier<T> action) {
+        final AllocationCounter counter = allocation();
+        final Map<Long, Long> allocatedBefore = counter.snapshot();
+        final long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            final long nanos = System.nanoTime() - start;
+            final long allocated = allocatedBefore == null ? -1 : allocatedSince(allocatedBefore, counter.snapshot());
+            synchronized (PHASES) {
+                PHASES.add(new Phase(phase, nanos, allocated));
+            }
+        }
+    }
+
+    private static long allocatedSince(final Map<Long, Long> before, final Map<Long, Long> after) {
+        long total = 0;
+        for (Map.Entry<Long, Long> thread : after.entrySet()) {
+            total += Math.max(0, thread.getValue() - before.getOrDefault(thread.getKey(), 0L));
+        }
+        return total;
+    }
+
+    /**
+     * Prints every phase recorded so far, in the order they finished.
+     */
+    public static void report(final PrintStream out) {
+        final List<Phase> phases;
+        synchronized (PHASES) {
+            phases = List.copyOf(PHASES);
+        }
+        out.println("fmlbench phase timings");
+        out.printf(Locale.ROOT, "%-40s %12s %14s%n", "phase", "wall ms", "allocated MiB");
+        for (Phase phase : phases) {
+            out.printf(Locale.ROOT, "%-40s %12.1f %14s%n", phase.name(), phase.nanos() / 1_000_000.0,
+                    phase.allocatedBytes() < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", phase.allocatedBytes() / (1024.0 * 1024.0)));
+        }
+    }
+
+    private static AllocationCounter allocation() {
+        AllocationCounter counter = allocation;
+        if (counter == null) {
+            synchronized (BenchPhases.class) {
+                counter = allocation;
+                if (counter == null) {
+                    allocation = counter = AllocationCounter.create();
+                }
+            }
+        }
+        return counter;
+    }
+
+    private interface AllocationCounter {
+        /**
+         * @return the bytes allocated so far by the calling thread, or -1 if the JVM can't tell
+         */
+        long currentThreadAllocatedBytes();
+
+        /**
+         * @return the bytes allocated so far by the calling thread and each live or finished worker, by thread id,
+         *         or null if the JVM can't tell
+         */
+        Map<Long, Long> snapshot();
+
+        static AllocationCounter create() {
+            try {
+                if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                    return new AllocationCounter() {
+                        @Override
+                        public long currentThreadAllocatedBytes() {
+                            return bean.getCurrentThreadAllocatedBytes();
+                        }
+
+                        @Override
+                        public Map<Long, Long> snapshot() {
+                            final Map<Long, Long> allocated = new HashMap<>(FINISHED_WORKERS);
+                            allocated.put(Thread.currentThread().getId(), bean.getCurrentThreadAllocatedBytes());
+                            for (long id : WORKERS) {
+                                final long bytes = bean.getThreadAllocatedBytes(id);
+                                // A worker that ended between the two lookups has reported itself by now
+                                allocated.put(id, bytes >= 0 ? bytes : FINISHED_WORKERS.getOrDefault(id, 0L));
+                            }
+                            return allocated;
+                        }
+                    };
+                }
+            } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+                // jdk.management is not available to the loader
+            }
+            return new AllocationCounter() {
+                @Override
+                public long currentThreadAllocatedBytes() {
+                    return -1;
+                }
+
+                @Override
+                public Map<Long, Long> snapshot() {
+                    return null;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.bench;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Writes a synthetic mod pack into a game directory for the {@code fmlbench} launch target.
+ * <p>
+ * Every mod jar holds a {@code javafml} mod with an entry class, generated classes carrying annotations for the
+ * scanner, mandatory dependencies on earlier mods and nested jar-in-jar libraries. The pack only
+ * depends on the options and the seed, so the same command always produces the same pack.
+ * <p>
+ * Usage: {@code SyntheticPackGenerator --output <gamedir> [--jars n] [--classes n] [--annotations n]
+ * [--dependencies n] [--jij-depth n] [--jij-per-jar n] [--seed n]}
+ */
+public final class SyntheticPackGenerator {
+    public static final String MINECRAFT_STUB = "fmlbench-minecraft.jar";
+    private static final String MOD_ANNOTATION = "Lnet/neoforged/fml/common/Mod;";
+    private static final String MARKER_ANNOTATION = "Lnet/neoforged/fmlbench/Marker;";
+
+    private final Path output;
+    private final int jars;
+    private final int classes;
+    private final int annotations;
+    private final int dependencies;
+    private final int jijDepth;
+    private final int jijPerJar;
+    private final Random random;
+
+    private SyntheticPackGenerator(final Map<String, String> options) {
+        this.output = Path.of(require(options, "output"));
+        this.jars = intOption(options, "jars", 100);
+        this.classes = intOption(options, "classes", 100);
+        this.annotations = intOption(options, "annotations", 2);
+        this.dependencies = intOption(options, "dependencies", 2);
+        this.jijDepth = intOption(options, "jij-depth", 1);
+        this.jijPerJar = intOption(options, "jij-per-jar", 1);
+        this.random = new Random(intOption(options, "seed", 0));
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        new SyntheticPackGenerator(options).generate();
+    }
+
+    private void generate() throws IOException {
+        final Path mods = output.resolve("mods");
+        Files.createDirectories(mods);
+
+        writeJar(output.resolve(MINECRAFT_STUB), manifest(null), Map.of(
+                "net/minecraft/fmlbench/Stub.class", emptyClass("net/minecraft/fmlbench/Stub", List.of())));
+
+        for (int i = 0; i < jars; i++) {
+            final String modId = modId(i);
+            final Map<String, byte[]> entries = new HashMap<>();
+            entries.put("META-INF/mods.toml", modsToml(i).getBytes(StandardCharsets.UTF_8));
+            final String pkg = "net/neoforged/fmlbench/" + modId;
+            entries.put(pkg + "/EntryPoint.class", modClass(pkg + "/EntryPoint", modId));
+            for (int c = 0; c < classes; c++) {
+                final String name = pkg + "/Generated" + c;
+                entries.put(name + ".class", emptyClass(name, markedFields()));
+            }
+            addNestedJars(entries, modId, 1);
+            writeJar(mods.resolve(modId + ".jar"), manifest(null), entries);
+        }
+        System.out.printf(Locale.ROOT, "Generated %d mod jars with %d classes each into %s%n", jars, classes, output.toAbsolutePath());
+    }
+
+    private static String modId(final int index) {
+        return String.format(Locale.ROOT, "benchmod%04d", index);
+    }
+
+    private String modsToml(final int index) {
+        final String modId = modId(index);
+        final StringBuilder toml = new StringBuilder()
+                .append("modLoader=\"javafml\"\n")
+                .append("loaderVersion=\"[1,)\"\n")
+                .append("license=\"LGPL-2.1-only\"\n")
+                .append("[[mods]]\n")
+                .append("modId=\"").append(modId).append("\"\n")
+                .append("version=\"1.0.0\"\n")
+                .append("displayName=\"Benchmark mod ").append(index).append("\"\n");
+        // Only depend on earlier mods, so the graph never has cycles
+        final int count = Math.min(dependencies, index);
+        final List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < index; i++) candidates.add(i);
+        for (int d = 0; d < count; d++) {
+            final int target = candidates.remove(random.nextInt(candidates.size()));
+            toml.append("[[dependencies.").append(modId).append("]]\n")
+                    .append("modId=\"").append(modId(target)).append("\"\n")
+                    .append("mandatory=true\n")
+                    .append("versionRange=\"[1.0.0,)\"\n")
+                    .append("ordering=\"AFTER\"\n")
+                    .append("side=\"BOTH\"\n");
+        }
+        return toml.toString();
+    }
+
+    /**
+     * Adds {@code jijPerJar} game libraries to {@code entries}, each nesting its own libraries down to {@code jijDepth}.
+     */
+    private void addNestedJars(final Map<String, byte[]> entries, final String owner, final int depth) throws IOException {
+        if (depth > jijDepth || jijPerJar <= 0) return;
+        final JsonArray jars = new JsonArray();
+        for (int j = 0; j < jijPerJar; j++) {
+            final String name = owner + "d" + depth + "n" + j;
+            final Map<String, byte[]> nested = new HashMap<>();
+            final String pkg = "net/neoforged/fmlbench/lib/" + name;
+            for (int c = 0; c < Math.max(1, classes / 10); c++) {
+                nested.put(pkg + "/Library" + c + ".class", emptyClass(pkg + "/Library" + c, markedFields()));
+            }
+            addNestedJars(nested, name, depth + 1);
+            final String path = "META-INF/jarjar/" + name + ".jar";
+            entries.put(path, jarBytes(manifest("GAMELIBRARY"), nested));
+
+            final JsonObject identifier = new JsonObject();
+            identifier.addProperty("group", "net.neoforged.fmlbench");
+            identifier.addProperty("artifact", name);
+            final JsonObject version = new JsonObject();
+            version.addProperty("range", "[1.0.0,)");
+            version.addProperty("artifactVersion", "1.0.0");
+            final JsonObject jar = new JsonObject();
+            jar.add("identifier", identifier);
+            jar.add("version", version);
+            jar.addProperty("path", path);
+            jar.addProperty("isObfuscated", false);
+            jars.add(jar);
+        }
+        final JsonObject metadata = new JsonObject();
+        metadata.add("jars", jars);
+        entries.put("META-INF/jarjar/metadata.json", new GsonBuilder().setPrettyPrinting().create().toJson(metadata).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> markedFields() {
+        final List<String> fields = new ArrayList<>(annotations);
+        for (int i = 0; i < annotations; i++) {
+            fields.add("marked" + i);
+        }
+        return fields;
+    }
+
+    private static byte[] modClass(final String name, final String modId) {
+        final ClassWriter cw = new ClassWriter(0);
+        cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        final AnnotationVisitor mod = cw.visitAnnotation(MOD_ANNOTATION, true);
+        mod.visit("value", modId);
+        mod.visitEnd();
+        addConstructor(cw);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static byte[] emptyClass(final String name, final List<String> markedFields) {
+        final ClassWriter cw = new ClassWriter(0);
+        cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        if (!markedFields.isEmpty()) {
+            cw.visitAnnotation(MARKER_ANNOTATION, true).visitEnd();
+        }
+        for (String field : markedFields) {
+            final FieldVisitor fv = cw.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, field, "I", null, null);
+            final AnnotationVisitor marker = fv.visitAnnotation(MARKER_ANNOTATION, true);
+            marker.visit("value", field);
+            marker.visitEnd();
+            fv.visitEnd();
+        }
+        addConstructor(cw);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void addConstructor(final ClassWriter cw) {
+        final MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(1, 1);
+        init.visitEnd();
+    }
+
+    private static Manifest manifest(final String modType) {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.IMPLEMENTATION_VERSION, "1.0.0");
+        if (modType != null) {
+            manifest.getMainAttributes().put(new Attributes.Name("FMLModType"), modType);
+        }
+        return manifest;
+    }
+
+    private static void writeJar(final Path path, final Manifest manifest, final Map<String, byte[]> entries) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            writeJar(out, manifest, entries);
+        }
+    }
+
+    private static byte[] jarBytes(final Manifest manifest, final Map<String, byte[]> entries) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeJar(out, manifest, entries);
+        return out.toByteArray();
+    }
+
+    private static void writeJar(final OutputStream out, final Manifest manifest, final Map<String, byte[]> entries) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(out, manifest)) {
+            // Sorted and with fixed entry times, so the same options always produce the same jar contents
+            for (String name : entries.keySet().stream().sorted().toList()) {
+                final JarEntry entry = new JarEntry(name);
+                entry.setTime(0);
+                jar.putNextEntry(entry);
+                jar.write(entries.get(name));
+                jar.closeEntry();
+            }
+        }
+    }
+
+    private static String require(final Map<String, String> options, final String name) {
+        final String value = options.get(name);
+        if (value == null) throw new IllegalArgumentException("Missing required option --" + name);
+        return value;
+    }
+
+    private static int intOption(final Map<String, String> options, final String name, final int defaultValue) {
+        final String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -18,7 +18,9 @@ public abstract class AbstractJarFileModLocator extends AbstractJarFileModProvid
     @Override
     public List<IModLocator.ModFileOrException> scanMods()
     {
-        return scanCandidates().map(this::createMod).toList();
+        // Opening the jars and parsing their metadata is independent per candidate, so do it in parallel.
+        // Collect the candidates first, since the locator streams are often not efficiently splittable.
+        return ParallelWork.map("mod-candidates", scanCandidates().toList(), this::createMod);
     }
 
     public abstract Stream<Path> scanCandidates();
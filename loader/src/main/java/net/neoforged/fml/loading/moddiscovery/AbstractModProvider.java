@@ -6,8 +6,10 @@
 package net.neoforged.fml.loading.moddiscovery;
 
 import com.mojang.logging.LogUtils;
+import cpw.mods.jarhandling.JarContents;
 import cpw.mods.jarhandling.JarContentsBuilder;
 import cpw.mods.jarhandling.SecureJar;
+import net.neoforged.fml.loading.JarContentsRegistry;
 import net.neoforged.fml.loading.LogMarkers;
 import net.neoforged.neoforgespi.language.IConfigurable;
 import net.neoforged.neoforgespi.language.IModFileInfo;
@@ -33,11 +35,12 @@ public abstract class AbstractModProvider implements IModProvider
     protected static final String MANIFEST = "META-INF/MANIFEST.MF";
 
     protected IModLocator.ModFileOrException createMod(Path... path) {
-        var jarContents = new JarContentsBuilder()
-                .paths(path)
-                .build();
+        var jarContents = (path.length == 1 ? JarContentsRegistry.take(path[0]) : Optional.<JarContents>empty())
+                .orElseGet(() -> new JarContentsBuilder()
+                        .paths(path)
+                        .build());
 
-        IModFile mod;
+        ModFile mod;
         var type = jarContents.getManifest().getMainAttributes().getValue(ModFile.TYPE);
         if (type == null) {
             type = getDefaultJarModType();
@@ -53,6 +56,10 @@ public abstract class AbstractModProvider implements IModProvider
         } else {
             return new IModLocator.ModFileOrException(null, new ModFileLoadingException("Invalid mod file found "+ Arrays.toString(path)));
         }
+        if (path.length == 1) {
+            // Both the registry and the builder above open the single path without a filter
+            mod.markUnfilteredJar();
+        }
 
         return new IModLocator.ModFileOrException(mod, null);
     }
@@ -10,13 +10,24 @@ import net.neoforged.fml.loading.FMLConfig;
 import net.neoforged.fml.loading.ImmediateWindowHandler;
 import net.neoforged.fml.loading.LoadingModList;
 import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.fml.loading.bench.BenchPhases;
+import net.neoforged.fml.loading.progress.ProgressMeter;
+import net.neoforged.fml.loading.progress.StartupNotificationManager;
 import net.neoforged.neoforgespi.language.ModFileScanData;
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -32,27 +43,45 @@ public class BackgroundScanHandler
     }
 
     private static final Logger LOGGER = LogUtils.getLogger();
+    // Progress is counted in KiB of jar files, as the meter only holds ints
+    private static final int PROGRESS_UNIT = 1024;
     private final ExecutorService modContentScanner;
     private final List<ModFile> pendingFiles;
     private final List<ModFile> scannedFiles;
     private final List<ModFile> allFiles;
+    private final Map<ModFile, Long> scanWork;
+    private final Map<ModFile, Long> estimatedWork;
+    private final List<ModFile> earlyScannedFiles;
+    private final Map<ModFile, Long> scanDurations;
+    private final List<CompletableFuture<ModFileScanData>> scanFutures;
     private ScanStatus status;
     private LoadingModList loadingModList;
+    private ProgressMeter progress;
+    private long completedWork;
 
     public BackgroundScanHandler() {
         int maxThreads = FMLConfig.getIntConfigValue(FMLConfig.ConfigValue.MAX_THREADS);
         // Leave 1 thread for Minecraft's own bootstrap
         int poolSize = Math.max(1, maxThreads - 1);
         AtomicInteger threadCount = new AtomicInteger();
-        modContentScanner = Executors.newFixedThreadPool(poolSize, r -> {
-            final Thread thread = Executors.defaultThreadFactory().newThread(r);
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        // A fork/join pool, so the Scanner can split large jars into subtasks that idle threads steal
+        modContentScanner = new ForkJoinPool(poolSize, pool -> {
+            final ForkJoinWorkerThread thread = BenchPhases.newWorkerThread(pool);
             thread.setDaemon(true);
+            // Workers are started from whichever thread submits work, so pin the context class loader of the thread creating the pool
+            thread.setContextClassLoader(contextClassLoader);
             thread.setName("background-scan-handler-" + threadCount.getAndIncrement());
             return thread;
-        });
+        }, null, false);
         scannedFiles = new ArrayList<>();
         pendingFiles = new ArrayList<>();
         allFiles = new ArrayList<>();
+        scanWork = new HashMap<>();
+        estimatedWork = new ConcurrentHashMap<>();
+        earlyScannedFiles = new ArrayList<>();
+        scanDurations = new HashMap<>();
+        scanFutures = new ArrayList<>();
         status = ScanStatus.NOT_STARTED;
     }
 
@@ -61,14 +90,109 @@ public class BackgroundScanHandler
             status = ScanStatus.ERRORED;
             throw new IllegalStateException("Scanner has shutdown");
         }
-        status = ScanStatus.RUNNING;
         ImmediateWindowHandler.updateProgress("Scanning mod candidates");
-        allFiles.add(file);
-        pendingFiles.add(file);
-        final CompletableFuture<ModFileScanData> future = CompletableFuture.supplyAsync(file::compileContent, modContentScanner)
+        synchronized (this) {
+            allFiles.add(file);
+            pendingFiles.add(file);
+        }
+        submit(file);
+    }
+
+    /**
+     * Submits a batch of files, largest first by the size of their jars.
+     * <p>
+     * Starting the biggest jars first keeps a large jar submitted late from finishing long after all other files,
+     * and progress is reported as the share of jar bytes scanned rather than the number of files.
+     */
+    public void submitForScanning(final Collection<ModFile> files) {
+        if (modContentScanner.isShutdown()) {
+            status = ScanStatus.ERRORED;
+            throw new IllegalStateException("Scanner has shutdown");
+        }
+        final List<ModFile> ordered = largestFirst(files);
+        final long totalWork = ordered.stream().mapToLong(estimatedWork::get).sum();
+        final List<ModFile> discarded;
+        synchronized (this) {
+            progress = StartupNotificationManager.addProgressBar("Scanning mod files", (int) Math.max(1, totalWork / PROGRESS_UNIT));
+            for (ModFile file : ordered) {
+                scanWork.put(file, estimatedWork.get(file));
+            }
+            allFiles.addAll(ordered);
+            pendingFiles.addAll(ordered);
+            discarded = new ArrayList<>(earlyScannedFiles);
+            earlyScannedFiles.clear();
+        }
+        // Files that were scanned early but did not make it into the final list were rejected during validation or sorting
+        discarded.removeAll(ordered);
+        discarded.forEach(ModFile::discardClassScan);
+        if (!discarded.isEmpty()) {
+            LOGGER.debug(LogMarkers.SCAN, "Discarded early class scans of {} rejected files", discarded.size());
+        }
+        ordered.forEach(this::submit);
+    }
+
+    /**
+     * Starts collecting the classes of {@code files} while validation and sorting of the mod list continue.
+     * <p>
+     * Only the class scan runs early, the language loaders still run once the file is submitted for scanning.
+     * The early results of files that are not submitted afterwards are discarded.
+     */
+    public void startEarlyScan(final Collection<ModFile> files) {
+        if (modContentScanner.isShutdown()) {
+            status = ScanStatus.ERRORED;
+            throw new IllegalStateException("Scanner has shutdown");
+        }
+        final List<ModFile> ordered = largestFirst(files);
+        synchronized (this) {
+            earlyScannedFiles.addAll(ordered);
+        }
+        for (ModFile file : ordered) {
+            file.startClassScan(modContentScanner);
+        }
+    }
+
+    private List<ModFile> largestFirst(final Collection<ModFile> files) {
+        files.forEach(file -> estimatedWork.computeIfAbsent(file, BackgroundScanHandler::estimateScanWork));
+        final List<ModFile> ordered = new ArrayList<>(files);
+        ordered.sort(Comparator.comparingLong((ModFile file) -> estimatedWork.get(file)).reversed());
+        return ordered;
+    }
+
+    private void submit(final ModFile file) {
+        status = ScanStatus.RUNNING;
+        final CompletableFuture<ModFileScanData> future = CompletableFuture.supplyAsync(() -> timedScan(file), modContentScanner)
                 .whenComplete(file::setScanResult)
                 .whenComplete((r,t)-> this.addCompletedFile(file,r,t));
         file.setFutureScanResult(future);
+        synchronized (this) {
+            scanFutures.add(future);
+        }
+    }
+
+    private ModFileScanData timedScan(final ModFile file) {
+        final long start = System.nanoTime();
+        try {
+            return file.compileContent();
+        } finally {
+            final long duration = System.nanoTime() - start;
+            synchronized (this) {
+                scanDurations.put(file, duration);
+            }
+        }
+    }
+
+    /**
+     * {@return the size of the jar of {@code file}, which stands in for the work of scanning it}
+     * Only the file size is read, so estimating stays cheap next to the scan itself.
+     */
+    private static long estimateScanWork(final ModFile file) {
+        final Optional<Path> jar = file.getBackingJar();
+        if (jar.isEmpty()) return 0;
+        try {
+            return Files.size(jar.get());
+        } catch (IOException e) {
+            return 0;
+        }
     }
 
     private synchronized void addCompletedFile(final ModFile file, final ModFileScanData modFileScanData, final Throwable throwable) {
@@ -78,6 +202,17 @@ public class BackgroundScanHandler
         }
         pendingFiles.remove(file);
         scannedFiles.add(file);
+        final Long work = scanWork.remove(file);
+        if (progress != null) {
+            if (work != null) {
+                completedWork += work;
+                progress.setAbsolute((int) (completedWork / PROGRESS_UNIT));
+            }
+            if (pendingFiles.isEmpty()) {
+                progress.complete();
+                progress = null;
+            }
+        }
     }
 
     public void setLoadingModList(LoadingModList loadingModList)
@@ -92,18 +227,42 @@ public class BackgroundScanHandler
 
     public void waitForScanToComplete(final Runnable ticker) {
         boolean timeoutActive = System.getProperty("fml.disableScanTimeout") == null;
+        long tickInterval = Math.max(1, FMLConfig.getIntConfigValue(FMLConfig.ConfigValue.SCAN_TICK_INTERVAL));
         Instant deadline = Instant.now().plus(Duration.ofMinutes(10));
         modContentScanner.shutdown();
+        final CompletableFuture<Void> allScans;
+        synchronized (this) {
+            allScans = CompletableFuture.allOf(scanFutures.toArray(CompletableFuture[]::new));
+        }
         do {
             ticker.run();
             try {
-                status = modContentScanner.awaitTermination(50, TimeUnit.MILLISECONDS) ? ScanStatus.COMPLETE : ScanStatus.RUNNING;
+                allScans.get(tickInterval, TimeUnit.MILLISECONDS);
+                status = ScanStatus.COMPLETE;
+            } catch (TimeoutException e) {
+                status = ScanStatus.RUNNING;
+            } catch (ExecutionException e) {
+                // Failures have already been logged by addCompletedFile, the files just have no scan result
+                status = ScanStatus.COMPLETE;
             } catch (InterruptedException e) {
                 status = ScanStatus.INTERRUPTED;
             }
-            if (timeoutActive && Instant.now().isAfter(deadline)) status = ScanStatus.TIMED_OUT;
+            if (status == ScanStatus.RUNNING && timeoutActive && Instant.now().isAfter(deadline)) status = ScanStatus.TIMED_OUT;
         } while (status == ScanStatus.RUNNING);
         if (status == ScanStatus.INTERRUPTED) Thread.currentThread().interrupt();
         if (status != ScanStatus.COMPLETE) throw new IllegalStateException("Failed to complete mod scan");
+        logScanDurations();
+        if (loadingModList != null && loadingModList.getErrors().isEmpty()) {
+            // Every mod file has been scanned, the remaining entries belong to files that are gone
+            ModFileScanCache.pruneUnused();
+            ExplodedScanCache.pruneUnused();
+        }
+    }
+
+    private synchronized void logScanDurations() {
+        if (!LOGGER.isDebugEnabled(LogMarkers.SCAN)) return;
+        scanDurations.entrySet().stream()
+                .sorted(Map.Entry.<ModFile, Long>comparingByValue().reversed())
+                .forEach(e -> LOGGER.debug(LogMarkers.SCAN, "Scanned {} in {} ms", e.getKey().getFileName(), TimeUnit.NANOSECONDS.toMillis(e.getValue())));
     }
 }
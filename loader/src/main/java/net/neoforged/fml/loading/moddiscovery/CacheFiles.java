@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.fml.loading.VersionInfo;
+import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.slf4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the files of the loader caches so that readers, including other game instances sharing the cache
+ * directory, only ever see complete files.
+ * <p>
+ * Every cache file starts with a {@link #header(int, int) header} naming the loader build that wrote it, since what
+ * is cached depends on the loader and the SPI, and entries nobody used during a launch can be {@link #pruneUnused pruned}.
+ */
+final class CacheFiles {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    // Entries read or written by this launch
+    private static final Set<Path> USED = ConcurrentHashMap.newKeySet();
+
+    private CacheFiles() {}
+
+    @FunctionalInterface
+    interface Content {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes {@code content} to a temporary file next to {@code target}, then moves it over {@code target},
+     * atomically where the file system supports it. The temporary file is removed if anything fails.
+     */
+    static void write(final Path target, final Content content) throws IOException {
+        Files.createDirectories(target.getParent());
+        final Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                content.write(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            markUsed(target);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Only left behind if the write failed, and never read
+            }
+        }
+    }
+
+    /**
+     * {@return the header of a cache file with {@code magic} in the given format, written by this loader build}
+     */
+    static byte[] header(final int magic, final int formatVersion) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(magic);
+            out.writeInt(formatVersion);
+            out.writeUTF(loaderVersion());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a header from {@code in}.
+     *
+     * @return true if it is {@code header}, in which case {@code in} is positioned right after it
+     */
+    static boolean matchesHeader(final ByteBuffer in, final byte[] header) {
+        if (in.remaining() < header.length) return false;
+        for (byte b : header) {
+            if (in.get() != b) return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@return identifies the loader and SPI build, so cache entries of another build are never read}
+     */
+    static String loaderVersion() {
+        final VersionInfo versionInfo = FMLLoader.versionInfo();
+        return (versionInfo == null ? null : versionInfo.fmlVersion())
+                + "|" + CacheFiles.class.getPackage().getImplementationVersion()
+                + "|" + ModFileScanData.class.getPackage().getImplementationVersion();
+    }
+
+    /**
+     * Keeps {@code entry} from being pruned at the end of this launch.
+     */
+    static void markUsed(final Path entry) {
+        USED.add(entry.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Deletes the entries in {@code directory} that this launch neither read nor wrote, such as those of mod files
+     * that were updated under a new name or removed. Only call this once every file that could have an entry in
+     * {@code directory} has been looked up.
+     */
+    static void pruneUnused(final Path directory) {
+        if (!Files.isDirectory(directory)) return;
+        int deleted = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*.bin")) {
+            for (Path entry : entries) {
+                if (USED.contains(entry.toAbsolutePath().normalize())) continue;
+                try {
+                    if (Files.deleteIfExists(entry)) deleted++;
+                } catch (IOException e) {
+                    // Still open by another instance, the next launch tries again
+                    LOGGER.debug(LogMarkers.LOADING, "Unable to delete unused cache entry {}", entry, e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug(LogMarkers.LOADING, "Unable to prune the cache directory {}", directory, e);
+            return;
+        }
+        if (deleted > 0) {
+            LOGGER.debug(LogMarkers.LOADING, "Deleted {} unused entries from {}", deleted, directory);
+        }
+    }
+}
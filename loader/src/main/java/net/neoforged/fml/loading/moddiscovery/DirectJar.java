@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Read-only view of the class files of a jar, read straight from the file with positional channel reads.
+ * <p>
+ * The central directory is read and walked once when the jar is opened. Class entries are then read and inflated
+ * into buffers owned by the reading thread, which avoids a {@link Path} and a stream per entry and the overhead of
+ * the union and zip file system providers. The file stays open until the jar is closed, and a jar that is truncated
+ * or replaced meanwhile fails with an {@link IOException}. Jars this reader does not understand (zip64, encrypted
+ * entries, unknown compression methods) are reported as empty from {@link #open(Path)} so callers can fall back.
+ */
+final class DirectJar implements Closeable {
+    static final int EOCD_SIGNATURE = 0x06054b50;
+    static final int EOCD_MIN_LENGTH = 22;
+    static final int EOCD_MAX_COMMENT = 0xFFFF;
+    private static final int CEN_SIGNATURE = 0x02014b50;
+    private static final int CEN_HEADER_LENGTH = 46;
+    private static final int LOC_SIGNATURE = 0x04034b50;
+    private static final int LOC_HEADER_LENGTH = 30;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_ENCRYPTED = 1;
+    private static final byte[] CLASS_SUFFIX = ".class".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<ReadBuffers> BUFFERS = ThreadLocal.withInitial(ReadBuffers::new);
+
+    record Entry(String name, int method, int compressedSize, int size, long localHeaderOffset) {}
+
+    private final Path path;
+    private final FileChannel channel;
+    private final List<Entry> classEntries;
+
+    private DirectJar(final Path path, final FileChannel channel, final List<Entry> classEntries) {
+        this.path = path;
+        this.channel = channel;
+        this.classEntries = classEntries;
+    }
+
+    static Optional<DirectJar> open(final Path jar) throws IOException {
+        final FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ);
+        boolean opened = false;
+        try {
+            final List<Entry> classEntries = readClassEntries(channel);
+            if (classEntries == null) return Optional.empty();
+            opened = true;
+            return Optional.of(new DirectJar(jar, channel, classEntries));
+        } finally {
+            if (!opened) channel.close();
+        }
+    }
+
+    /**
+     * {@return the class entries listed in the central directory, or null if the jar can't be read directly}
+     */
+    private static List<Entry> readClassEntries(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer centralDirectory = readCentralDirectory(channel, size);
+        if (centralDirectory == null) return null;
+        centralDirectory.order(ByteOrder.LITTLE_ENDIAN);
+        final List<Entry> classEntries = new ArrayList<>();
+        int pos = 0;
+        final int end = centralDirectory.limit();
+        while (pos + CEN_HEADER_LENGTH <= end) {
+            if (centralDirectory.getInt(pos) != CEN_SIGNATURE) return null;
+            final int flags = Short.toUnsignedInt(centralDirectory.getShort(pos + 8));
+            final int method = Short.toUnsignedInt(centralDirectory.getShort(pos + 10));
+            final long compressedSize = Integer.toUnsignedLong(centralDirectory.getInt(pos + 20));
+            final long entrySize = Integer.toUnsignedLong(centralDirectory.getInt(pos + 24));
+            final int nameLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 28));
+            final int extraLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 30));
+            final int commentLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 32));
+            final long localHeaderOffset = Integer.toUnsignedLong(centralDirectory.getInt(pos + 42));
+            final int namePos = pos + CEN_HEADER_LENGTH;
+            if (namePos + nameLength > end) return null;
+            if (isClassName(centralDirectory, namePos, nameLength)) {
+                if ((flags & FLAG_ENCRYPTED) != 0 || (method != METHOD_STORED && method != METHOD_DEFLATED)) return null;
+                if (compressedSize > Integer.MAX_VALUE || entrySize > Integer.MAX_VALUE || localHeaderOffset + LOC_HEADER_LENGTH > size) return null;
+                final byte[] name = new byte[nameLength];
+                centralDirectory.get(namePos, name);
+                classEntries.add(new Entry(new String(name, StandardCharsets.UTF_8), method, (int) compressedSize, (int) entrySize, localHeaderOffset));
+            }
+            pos = namePos + nameLength + extraLength + commentLength;
+        }
+        return Collections.unmodifiableList(classEntries);
+    }
+
+    /**
+     * {@return the position of the end of central directory record in {@code buffer}, or -1 if there is none}
+     * The buffer must be in little endian order and end where the zip file ends.
+     */
+    static int findEndOfCentralDirectory(final ByteBuffer buffer) {
+        final int limit = buffer.limit();
+        final int lowest = Math.max(0, limit - EOCD_MIN_LENGTH - EOCD_MAX_COMMENT);
+        for (int pos = limit - EOCD_MIN_LENGTH; pos >= lowest; pos--) {
+            if (buffer.getInt(pos) == EOCD_SIGNATURE) return pos;
+        }
+        return -1;
+    }
+
+    /**
+     * {@return the central directory of the zip file read from {@code channel}, or null if it can't be located cheaply}
+     * Zip64 files and files that aren't zips at all have no central directory this can find.
+     */
+    static ByteBuffer readCentralDirectory(final FileChannel channel, final long size) throws IOException {
+        if (size < EOCD_MIN_LENGTH) return null;
+        final int tailLength = (int) Math.min(size, EOCD_MIN_LENGTH + EOCD_MAX_COMMENT);
+        final ByteBuffer tail = ByteBuffer.allocate(tailLength).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, tail, size - tailLength);
+        final int pos = findEndOfCentralDirectory(tail);
+        if (pos < 0) return null;
+        final long cdSize = Integer.toUnsignedLong(tail.getInt(pos + 12));
+        final long cdOffset = Integer.toUnsignedLong(tail.getInt(pos + 16));
+        if (cdSize == 0xFFFFFFFFL || cdOffset == 0xFFFFFFFFL || cdOffset + cdSize > size || cdSize > Integer.MAX_VALUE) return null;
+        final ByteBuffer centralDirectory = ByteBuffer.allocate((int) cdSize);
+        readFully(channel, centralDirectory, cdOffset);
+        return centralDirectory.flip();
+    }
+
+    /**
+     * {@return the names of all entries of {@code jar}, in central directory order}
+     * Only the central directory is read. Empty if the jar has no central directory {@link #readCentralDirectory} understands.
+     */
+    static Optional<List<String>> entryNames(final Path jar) throws IOException {
+        final ByteBuffer centralDirectory;
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            centralDirectory = readCentralDirectory(channel, channel.size());
+        }
+        if (centralDirectory == null) return Optional.empty();
+        return entryNames(centralDirectory);
+    }
+
+    /**
+     * {@return the names of all entries of the central directory {@link #readCentralDirectory} returned, in order}
+     * Empty if the central directory is malformed. Changes the byte order of {@code centralDirectory} but not its position.
+     */
+    static Optional<List<String>> entryNames(final ByteBuffer centralDirectory) {
+        centralDirectory.order(ByteOrder.LITTLE_ENDIAN);
+        final List<String> names = new ArrayList<>();
+        int pos = 0;
+        final int end = centralDirectory.limit();
+        while (pos + CEN_HEADER_LENGTH <= end) {
+            if (centralDirectory.getInt(pos) != CEN_SIGNATURE) return Optional.empty();
+            final int nameLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 28));
+            final int extraLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 30));
+            final int commentLength = Short.toUnsignedInt(centralDirectory.getShort(pos + 32));
+            final byte[] name = new byte[nameLength];
+            centralDirectory.get(pos + CEN_HEADER_LENGTH, name);
+            names.add(new String(name, StandardCharsets.UTF_8));
+            pos += CEN_HEADER_LENGTH + nameLength + extraLength + commentLength;
+        }
+        return Optional.of(names);
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("Unexpected end of file");
+            position += read;
+        }
+    }
+
+    private static boolean isClassName(final ByteBuffer data, final int namePos, final int nameLength) {
+        if (nameLength <= CLASS_SUFFIX.length) return false;
+        final int suffixPos = namePos + nameLength - CLASS_SUFFIX.length;
+        for (int i = 0; i < CLASS_SUFFIX.length; i++) {
+            if (data.get(suffixPos + i) != CLASS_SUFFIX[i]) return false;
+        }
+        return true;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * {@return the class file entries of this jar, in central directory order}
+     */
+    List<Entry> classEntries() {
+        return classEntries;
+    }
+
+    /**
+     * Reads a class entry into the calling thread's buffer. Safe to call from several threads at once.
+     *
+     * @return a buffer holding the class file in its first {@link Entry#size()} bytes, only valid until the same
+     *         thread reads the next entry
+     */
+    byte[] read(final Entry entry) throws IOException {
+        final ReadBuffers buffers = BUFFERS.get();
+        final ByteBuffer header = buffers.header.clear();
+        readFully(channel, header, entry.localHeaderOffset());
+        if (header.getInt(0) != LOC_SIGNATURE) throw new ZipException("Invalid local header for " + entry.name() + " in " + path);
+        final long dataOffset = entry.localHeaderOffset() + LOC_HEADER_LENGTH + Short.toUnsignedInt(header.getShort(26)) + Short.toUnsignedInt(header.getShort(28));
+        final byte[] out = buffers.output(entry.size());
+        if (entry.method() == METHOD_STORED) {
+            readFully(channel, ByteBuffer.wrap(out, 0, entry.size()), dataOffset);
+            return out;
+        }
+        final byte[] input = buffers.input(entry.compressedSize());
+        readFully(channel, ByteBuffer.wrap(input, 0, entry.compressedSize()), dataOffset);
+        final Inflater inflater = buffers.inflater;
+        inflater.reset();
+        inflater.setInput(input, 0, entry.compressedSize());
+        try {
+            int read = 0;
+            while (read < entry.size()) {
+                final int n = inflater.inflate(out, read, entry.size() - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            if (read != entry.size()) throw new ZipException("Truncated entry " + entry.name() + " in " + path);
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid compressed data for " + entry.name() + " in " + path + ": " + e.getMessage());
+        }
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static final class ReadBuffers {
+        private final Inflater inflater = new Inflater(true);
+        private final ByteBuffer header = ByteBuffer.allocate(LOC_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        private byte[] input = new byte[16 * 1024];
+        private byte[] output = new byte[64 * 1024];
+
+        byte[] input(final int size) {
+            if (input.length < size) {
+                input = new byte[Math.max(size, input.length * 2)];
+            }
+            return input;
+        }
+
+        byte[] output(final int size) {
+            if (output.length < size) {
+                output = new byte[Math.max(size, output.length * 2)];
+            }
+            return output;
+        }
+    }
+}
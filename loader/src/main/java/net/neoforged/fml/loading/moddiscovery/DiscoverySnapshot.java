@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.FMLConfig;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.neoforgespi.locating.IModFile;
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Remembers the outcome of jar-in-jar resolution between launches.
+ * <p>
+ * The snapshot holds the embedded jars that were selected, together with a fingerprint of everything the selection
+ * depends on: the path, size and modification time of every mod file found by the mod locators, and the game and
+ * loader versions. When the fingerprint of the next launch matches, the selected jars are loaded directly instead of
+ * reading the metadata of every embedded jar and resolving their versions again.
+ */
+final class DiscoverySnapshot {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAGIC = 0x464d4c44; // FMLD
+    private static final int FORMAT_VERSION = 1;
+    private static final List<String> VERSION_ARGUMENTS = List.of("mcVersion", "neoForgeVersion", "fmlVersion", "neoFormVersion");
+
+    /**
+     * An embedded jar that was selected, identified by the mod file it was found in and the chain of paths leading to it.
+     */
+    record Selection(String outerFile, List<String> innerPaths) {}
+
+    private DiscoverySnapshot() {}
+
+    static boolean isEnabled() {
+        return FMLConfig.getBoolConfigValue(FMLConfig.ConfigValue.DISCOVERY_SNAPSHOT) && FMLPaths.CACHEDIR.get() != null;
+    }
+
+    /**
+     * {@return the fingerprint of the inputs of jar-in-jar resolution, or empty if it can't be computed}
+     */
+    static Optional<String> fingerprint(final List<? extends IModFile> locatedFiles, final Map<String, ?> arguments) {
+        final StringBuilder inputs = new StringBuilder();
+        for (String argument : VERSION_ARGUMENTS) {
+            inputs.append(argument).append('=').append(arguments.get(argument)).append('\n');
+        }
+        final List<Path> paths = new ArrayList<>();
+        for (IModFile file : locatedFiles) {
+            paths.add(file.getFilePath());
+        }
+        paths.sort(Comparator.comparing(Path::toString));
+        try {
+            for (Path path : paths) {
+                inputs.append(key(path)).append('|').append(Files.size(path)).append('|').append(Files.getLastModifiedTime(path).toMillis()).append('\n');
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Unable to fingerprint the located mod files for the discovery snapshot", e);
+            return Optional.empty();
+        }
+        return Optional.of(JarFingerprint.hashOf(inputs.toString()));
+    }
+
+    static String key(final Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    static Optional<List<Selection>> load(final String fingerprint) {
+        final Path snapshot = snapshotPath();
+        if (!Files.isRegularFile(snapshot)) return Optional.empty();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(fingerprint)) return Optional.empty();
+            final int count = in.readInt();
+            final List<Selection> selections = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final String outerFile = in.readUTF();
+                final int depth = in.readInt();
+                final List<String> innerPaths = new ArrayList<>(depth);
+                for (int j = 0; j < depth; j++) {
+                    innerPaths.add(in.readUTF());
+                }
+                selections.add(new Selection(outerFile, List.copyOf(innerPaths)));
+            }
+            return Optional.of(selections);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Discarding unreadable discovery snapshot {}", snapshot, e);
+            return Optional.empty();
+        }
+    }
+
+    static void store(final String fingerprint, final List<Selection> selections) {
+        try {
+            CacheFiles.write(snapshotPath(), out -> {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(fingerprint);
+                out.writeInt(selections.size());
+                for (Selection selection : selections) {
+                    out.writeUTF(selection.outerFile());
+                    out.writeInt(selection.innerPaths().size());
+                    for (String innerPath : selection.innerPaths()) {
+                        out.writeUTF(innerPath);
+                    }
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Failed to write the discovery snapshot", e);
+        }
+    }
+
+    private static Path snapshotPath() {
+        return FMLPaths.CACHEDIR.get().resolve("discovery.bin");
+    }
+}
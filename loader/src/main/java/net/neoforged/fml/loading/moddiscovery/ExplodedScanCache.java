@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.FMLConfig;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the scan result of every class file of an exploded mod directory, together with the size and
+ * modification time of the file, so the next launch only has to visit the classes that changed. Entries written
+ * by another loader build are ignored, and entries of directories a complete scan did not visit are deleted by
+ * {@link #pruneUnused()}.
+ */
+final class ExplodedScanCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAGIC = 0x464d4c45; // FMLE
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * The scan result of a single class file; both lists are empty if the file could not be read as a class.
+     */
+    record ClassEntry(long size, long lastModified, List<ModFileScanData.ClassData> classes, List<ModFileScanData.AnnotationData> annotations) {}
+
+    private ExplodedScanCache() {}
+
+    static boolean isEnabled() {
+        return FMLConfig.getBoolConfigValue(FMLConfig.ConfigValue.INCREMENTAL_EXPLODED_SCAN) && FMLPaths.CACHEDIR.get() != null;
+    }
+
+    /**
+     * {@return the class entries stored for {@code file} by its previous scan, keyed by path in the file, or an empty map}
+     */
+    static Map<String, ClassEntry> load(final ModFile file) {
+        final Path entry = entryPath(file);
+        if (!Files.isRegularFile(entry)) return Map.of();
+        try {
+            final ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(entry));
+            if (!CacheFiles.matchesHeader(in, CacheFiles.header(MAGIC, FORMAT_VERSION))) return Map.of();
+            final ScanDataCodec.Reader reader = new ScanDataCodec.Reader(in);
+            final int count = reader.readInt();
+            final Map<String, ClassEntry> entries = new HashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                final String path = reader.readString();
+                final long size = reader.readLong();
+                final long lastModified = reader.readLong();
+                final int classCount = reader.readInt();
+                final List<ModFileScanData.ClassData> classes = new ArrayList<>(classCount);
+                for (int j = 0; j < classCount; j++) {
+                    classes.add(reader.readClassData());
+                }
+                final int annotationCount = reader.readInt();
+                final List<ModFileScanData.AnnotationData> annotations = new ArrayList<>(annotationCount);
+                for (int j = 0; j < annotationCount; j++) {
+                    annotations.add(reader.readAnnotationData());
+                }
+                entries.put(path, new ClassEntry(size, lastModified, classes, annotations));
+            }
+            CacheFiles.markUsed(entry);
+            return entries;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Discarding unreadable exploded scan cache {} for {}", entry, file.getFilePath(), e);
+            return Map.of();
+        }
+    }
+
+    static void store(final ModFile file, final Map<String, ClassEntry> entries) {
+        try {
+            CacheFiles.write(entryPath(file), out -> {
+                out.write(CacheFiles.header(MAGIC, FORMAT_VERSION));
+                final ScanDataCodec.Writer writer = new ScanDataCodec.Writer(out);
+                writer.writeInt(entries.size());
+                for (Map.Entry<String, ClassEntry> e : entries.entrySet()) {
+                    final ClassEntry classEntry = e.getValue();
+                    writer.writeString(e.getKey());
+                    writer.writeLong(classEntry.size());
+                    writer.writeLong(classEntry.lastModified());
+                    writer.writeInt(classEntry.classes().size());
+                    for (ModFileScanData.ClassData classData : classEntry.classes()) {
+                        writer.writeClassData(classData);
+                    }
+                    writer.writeInt(classEntry.annotations().size());
+                    for (ModFileScanData.AnnotationData annotationData : classEntry.annotations()) {
+                        writer.writeAnnotationData(annotationData);
+                    }
+                }
+                writer.flush();
+            });
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Failed to write exploded scan cache for {}", file.getFilePath(), e);
+        }
+    }
+
+    /**
+     * Deletes the entries of directories that were neither loaded nor stored during this launch. Called once every mod file has been scanned.
+     */
+    static void pruneUnused() {
+        if (isEnabled()) CacheFiles.pruneUnused(directory());
+    }
+
+    private static Path directory() {
+        return FMLPaths.CACHEDIR.get().resolve("exploded");
+    }
+
+    private static Path entryPath(final ModFile file) {
+        return directory().resolve(JarFingerprint.hashOf(file.getFilePath().toAbsolutePath().normalize().toString()) + ".bin");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identifies the content of a jar file on disk without reading all of it.
+ * <p>
+ * The content hash covers the zip central directory, which holds the name, size and CRC of every entry,
+ * so any change to the jar's entries changes the hash.
+ */
+record JarFingerprint(long size, long lastModified, String contentHash) {
+    // Several caches key on the same jars during a launch, only hash each of them once unless it changes
+    private static final Map<Path, JarFingerprint> KNOWN = new ConcurrentHashMap<>();
+    // Resource name hashes from the central directory pass, until the resource index takes them
+    private static final Map<Path, ResourceHashes> RESOURCE_HASHES = new ConcurrentHashMap<>();
+
+    private record ResourceHashes(JarFingerprint fingerprint, long[] hashes) {}
+
+    static JarFingerprint of(final Path jar) throws IOException {
+        final long size = Files.size(jar);
+        final long lastModified = Files.getLastModifiedTime(jar).toMillis();
+        final JarFingerprint known = KNOWN.get(jar);
+        if (known != null && known.size() == size && known.lastModified() == lastModified) return known;
+        final JarFingerprint fingerprint = compute(jar, size, lastModified);
+        KNOWN.put(jar, fingerprint);
+        return fingerprint;
+    }
+
+    private static JarFingerprint compute(final Path jar, final long size, final long lastModified) throws IOException {
+        final MessageDigest digest = newDigest();
+        long[] resourceHashes = null;
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            final ByteBuffer centralDirectory = DirectJar.readCentralDirectory(channel, size);
+            if (centralDirectory != null) {
+                // The resource index needs the entry names as well, take them from this read instead of reading the jar again
+                resourceHashes = DirectJar.entryNames(centralDirectory.duplicate()).map(ModFileResourceIndex::resourceHashes).orElse(null);
+                digest.update(centralDirectory);
+            } else {
+                // Not something we can parse cheaply (zip64, or not a zip at all), hash the whole file instead
+                final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                while (channel.read(buffer) > 0) {
+                    digest.update(buffer.flip());
+                    buffer.clear();
+                }
+            }
+        }
+        final JarFingerprint fingerprint = new JarFingerprint(size, lastModified, HexFormat.of().formatHex(digest.digest()));
+        if (resourceHashes != null) {
+            RESOURCE_HASHES.put(jar, new ResourceHashes(fingerprint, resourceHashes));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * {@return the {@link ModFileResourceIndex#resourceHashes resource hashes} of {@code jar} from when it was
+     * fingerprinted, or null if they aren't known or the jar changed since}
+     * The hashes are handed out once, so they don't stay in memory next to the index built from them.
+     */
+    static long[] takeResourceHashes(final Path jar) throws IOException {
+        final ResourceHashes known = RESOURCE_HASHES.remove(jar);
+        if (known == null) return null;
+        final JarFingerprint current = KNOWN.get(jar);
+        if (current != known.fingerprint() || Files.size(jar) != current.size() || Files.getLastModifiedTime(jar).toMillis() != current.lastModified()) return null;
+        return known.hashes();
+    }
+
+    /**
+     * Drops the resource hashes nobody took, such as those of the Minecraft jars.
+     */
+    static void forgetResourceHashes() {
+        RESOURCE_HASHES.clear();
+    }
+
+    /**
+     * Writes this fingerprint in the form read by {@link #matches(ByteBuffer)}.
+     */
+    void write(final DataOutputStream out) throws IOException {
+        out.writeLong(size);
+        out.writeLong(lastModified);
+        out.writeUTF(contentHash);
+    }
+
+    /**
+     * {@return the number of bytes {@link #write(DataOutputStream)} produces}
+     */
+    int encodedLength() {
+        // size + mtime + modified UTF-8 length prefix and ASCII hex digits
+        return 8 + 8 + 2 + contentHash.length();
+    }
+
+    /**
+     * Reads a fingerprint written by {@link #write(DataOutputStream)} and compares it to this one.
+     */
+    boolean matches(final ByteBuffer in) {
+        if (in.getLong() != size || in.getLong() != lastModified) return false;
+        final byte[] hash = new byte[in.getShort()];
+        if (hash.length != contentHash.length()) return false;
+        in.get(hash);
+        return new String(hash, StandardCharsets.US_ASCII).equals(contentHash);
+    }
+
+    /**
+     * {@return a stable hex hash of the given string, suitable for naming cache files}
+     */
+    static String hashOf(final String value) {
+        return HexFormat.of().formatHex(newDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
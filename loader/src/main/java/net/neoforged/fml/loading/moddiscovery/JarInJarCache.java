@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.FMLConfig;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.neoforgespi.locating.IModFile;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Extracts jars embedded in mod jars to the cache directory, so they can be opened as plain files instead of through
+ * a nested zip file system.
+ * <p>
+ * Extracted jars live under {@code jij/<hash>/<file name>}, where the hash covers the {@link JarFingerprint} of the
+ * outer jar and the path of the embedded jar in it. A changed outer jar therefore gets a fresh copy, and stale copies
+ * are simply never looked up again.
+ */
+final class JarInJarCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private JarInJarCache() {}
+
+    static boolean isEnabled() {
+        return FMLConfig.getBoolConfigValue(FMLConfig.ConfigValue.JIJ_CACHE) && FMLPaths.CACHEDIR.get() != null;
+    }
+
+    /**
+     * {@return the extracted copy of {@code pathInModFile}, or empty if the embedded jar should be mounted in place}
+     */
+    static Optional<Path> extract(final IModFile outer, final Path pathInModFile) {
+        if (!isEnabled() || !(outer instanceof ModFile modFile)) return Optional.empty();
+        // Only jars that sit directly in a plain file are cached, jars nested more deeply are mounted as before
+        final Optional<Path> outerJar = modFile.getBackingJar();
+        if (outerJar.isEmpty()) return Optional.empty();
+        try {
+            final JarFingerprint fingerprint = JarFingerprint.of(outerJar.get());
+            final String key = JarFingerprint.hashOf(fingerprint.contentHash() + ":" + fingerprint.size() + ":" + pathInModFile);
+            final Path target = FMLPaths.CACHEDIR.get().resolve("jij").resolve(key).resolve(pathInModFile.getFileName().toString());
+            final long size = Files.size(pathInModFile);
+            if (Files.isRegularFile(target) && Files.size(target) == size) {
+                LOGGER.debug(LogMarkers.SCAN, "Using extracted copy {} of {} from {}", target, pathInModFile, outer.getFileName());
+                return Optional.of(target);
+            }
+            CacheFiles.write(target, out -> Files.copy(pathInModFile, out));
+            LOGGER.debug(LogMarkers.SCAN, "Extracted {} from {} to {}", pathInModFile, outer.getFileName(), target);
+            return Optional.of(target);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Unable to extract {} from {}, mounting it in place", pathInModFile, outer.getFileName(), e);
+            return Optional.empty();
+        }
+    }
+}
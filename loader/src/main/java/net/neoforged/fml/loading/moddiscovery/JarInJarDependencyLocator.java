@@ -22,17 +22,22 @@ import java.net.URI;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class JarInJarDependencyLocator extends AbstractJarFileDependencyLocator
 {
     private static final Logger LOGGER = LogUtils.getLogger();
+    // Where each embedded jar loaded by this locator came from, so the selection can be stored in a DiscoverySnapshot
+    private final Map<IModFile, DiscoverySnapshot.Selection> origins = new ConcurrentHashMap<>();
 
     @Override
     public String name()
@@ -58,6 +63,48 @@ public class JarInJarDependencyLocator extends AbstractJarFileDependencyLocator
         return dependenciesToLoad;
     }
 
+    /**
+     * {@return where the given files, returned by {@link #scanMods(Iterable)}, were loaded from}
+     */
+    List<DiscoverySnapshot.Selection> selectionsOf(final List<IModFile> files)
+    {
+        return files.stream().map(origins::get).toList();
+    }
+
+    /**
+     * Loads the embedded jars selected on a previous launch again, without resolving their versions.
+     */
+    List<IModFile> loadSelections(final Iterable<IModFile> loadedMods, final List<DiscoverySnapshot.Selection> selections)
+    {
+        final Map<List<String>, IModFile> files = new HashMap<>();
+        for (IModFile mod : loadedMods)
+        {
+            files.put(List.of(DiscoverySnapshot.key(mod.getFilePath())), mod);
+        }
+        final List<IModFile> selected = new ArrayList<>(selections.size());
+        for (DiscoverySnapshot.Selection selection : selections)
+        {
+            final List<String> chain = new ArrayList<>();
+            chain.add(selection.outerFile());
+            chain.addAll(selection.innerPaths());
+            selected.add(loadChain(files, chain));
+        }
+        return selected;
+    }
+
+    private IModFile loadChain(final Map<List<String>, IModFile> files, final List<String> chain)
+    {
+        final IModFile known = files.get(chain);
+        if (known != null) return known;
+        if (chain.size() == 1) throw new ModFileLoadingException("Mod file " + chain.get(0) + " is no longer present");
+        final IModFile outer = loadChain(files, chain.subList(0, chain.size() - 1));
+        final String innerPath = chain.get(chain.size() - 1);
+        final IModFile file = loadModFileFrom(outer, Path.of(innerPath))
+                .orElseThrow(() -> new ModFileLoadingException("Failed to load " + innerPath + " from " + outer.getFileName()));
+        files.put(List.copyOf(chain), file);
+        return file;
+    }
+
     @Override
     public void initArguments(final Map<String, ?> arguments)
     {
@@ -77,11 +124,16 @@ public class JarInJarDependencyLocator extends AbstractJarFileDependencyLocator
         try
         {
             final Path pathInModFile = file.findResource(path.toString());
+            final Optional<Path> extracted = JarInJarCache.extract(file, pathInModFile);
+            if (extracted.isPresent())
+            {
+                return Optional.of(recordOrigin(file, path, createMod(extracted.get()).file()));
+            }
             final URI filePathUri = new URI("jij:" + (pathInModFile.toAbsolutePath().toUri().getRawSchemeSpecificPart())).normalize();
             final Map<String, ?> outerFsArgs = ImmutableMap.of("packagePath", pathInModFile);
             final FileSystem zipFS = FileSystems.newFileSystem(filePathUri, outerFsArgs);
             final Path pathInFS = zipFS.getPath("/");
-            return Optional.of(createMod(pathInFS).file());
+            return Optional.of(recordOrigin(file, path, createMod(pathInFS).file()));
         }
         catch (Exception e)
         {
@@ -93,6 +145,19 @@ public class JarInJarDependencyLocator extends AbstractJarFileDependencyLocator
         }
     }
 
+    private IModFile recordOrigin(final IModFile outer, final Path path, final IModFile file)
+    {
+        if (file != null)
+        {
+            final DiscoverySnapshot.Selection outerOrigin = origins.get(outer);
+            final List<String> innerPaths = new ArrayList<>();
+            if (outerOrigin != null) innerPaths.addAll(outerOrigin.innerPaths());
+            innerPaths.add(path.toString());
+            origins.put(file, new DiscoverySnapshot.Selection(outerOrigin != null ? outerOrigin.outerFile() : DiscoverySnapshot.key(outer.getFilePath()), List.copyOf(innerPaths)));
+        }
+        return file;
+    }
+
     protected EarlyLoadingException exception(Collection<JarSelector.ResolutionFailureInformation<IModFile>> failedDependencies)
     {
 
@@ -23,6 +23,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -30,6 +31,8 @@ import java.util.stream.Stream;
 public class MinecraftLocator extends AbstractModProvider implements IModLocator
 {
     private static final Logger LOGGER = LogUtils.getLogger();
+    private volatile IModFile minecraftJar;
+    private volatile List<Path> minecraftPaths;
 
     @Override
     public List<IModLocator.ModFileOrException> scanMods() {
@@ -43,6 +46,8 @@ public class MinecraftLocator extends AbstractModProvider implements IModLocator
         var mcSecureJar = SecureJar.from(mcJarContents, mcJarMetadata);
         var mcjar = ModFileFactory.FACTORY.build(mcSecureJar, this, this::buildMinecraftTOML);
         mcJarMetadata.setModFile(mcjar);
+        this.minecraftPaths = List.copyOf(baseMC.minecraftPaths());
+        this.minecraftJar = mcjar;
         var artifacts = baseMC.otherArtifacts().stream()
                 .map(SecureJar::from)
                 .map(sj -> new ModFile(sj, this, ModFileParser::modsTomlParser))
@@ -107,6 +112,13 @@ public class MinecraftLocator extends AbstractModProvider implements IModLocator
         return new ModFileInfo(modFile, configWrapper, configWrapper::setFile, List.of());
     }
 
+    /**
+     * {@return the paths making up {@code modFile}, if it is the Minecraft mod file built by this locator}
+     */
+    Optional<List<Path>> minecraftPaths(final IModFile modFile) {
+        return modFile == minecraftJar ? Optional.ofNullable(minecraftPaths) : Optional.empty();
+    }
+
     @Override
     public String name() {
         return "minecraft";
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.FMLConfig;
+import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.fml.loading.VersionInfo;
+import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores the scan result of the Minecraft mod file next to the game libraries. The classes of the patched game jar
+ * only depend on the game version and the jar itself, so the index is shared by every instance using the same
+ * libraries directory and is only built once per version and loader build.
+ * <p>
+ * Game files that aren't regular jars, as in development, are never indexed.
+ */
+final class MinecraftScanIndex {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAGIC = 0x464d4c49; // FMLI
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * @param id    identifies the game version and jar contents the index was built from
+     * @param entry the file holding the index
+     */
+    record Key(String id, Path entry) {}
+
+    private MinecraftScanIndex() {}
+
+    /**
+     * {@return the key of the index for {@code file}, or empty if it isn't the Minecraft mod file or can't be indexed}
+     */
+    static Optional<Key> key(final ModFile file) {
+        if (!(file.getProvider() instanceof MinecraftLocator locator)) return Optional.empty();
+        if (!FMLConfig.getBoolConfigValue(FMLConfig.ConfigValue.MINECRAFT_SCAN_INDEX)) return Optional.empty();
+        final Optional<List<Path>> paths = locator.minecraftPaths(file);
+        final Optional<Path> directory = indexDirectory();
+        if (paths.isEmpty() || paths.get().isEmpty() || directory.isEmpty()) return Optional.empty();
+
+        final VersionInfo versionInfo = FMLLoader.versionInfo();
+        final StringBuilder id = new StringBuilder()
+                .append(versionInfo.mcVersion()).append('|')
+                .append(versionInfo.neoForgeVersion()).append('|')
+                .append(FMLLoader.getLaunchHandler().name()).append('|')
+                .append(CacheFiles.loaderVersion());
+        for (Path path : paths.get()) {
+            if (!Files.isRegularFile(path)) return Optional.empty();
+            try {
+                final JarFingerprint fingerprint = JarFingerprint.of(path);
+                id.append('|').append(fingerprint.size()).append(':').append(fingerprint.contentHash());
+            } catch (IOException e) {
+                LOGGER.debug(LogMarkers.SCAN, "Unable to fingerprint {} for the Minecraft scan index", path, e);
+                return Optional.empty();
+            }
+        }
+        final String key = id.toString();
+        final Path entry = directory.get().resolve(versionInfo.mcVersion()).resolve(JarFingerprint.hashOf(key) + ".bin");
+        return Optional.of(new Key(key, entry));
+    }
+
+    /**
+     * Fills {@code result} with the indexed classes and annotations.
+     *
+     * @return true if a valid index for {@code key} was found
+     */
+    static boolean load(final Key key, final ModFileScanData result) {
+        if (!Files.isRegularFile(key.entry())) return false;
+        try (FileChannel channel = FileChannel.open(key.entry(), StandardOpenOption.READ)) {
+            final ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!CacheFiles.matchesHeader(in, CacheFiles.header(MAGIC, FORMAT_VERSION))) return false;
+            final ScanDataCodec.Reader reader = new ScanDataCodec.Reader(in);
+            if (!key.id().equals(reader.readString())) return false;
+            final int classCount = reader.readInt();
+            for (int i = 0; i < classCount; i++) {
+                result.getClasses().add(reader.readClassData());
+            }
+            final int annotationCount = reader.readInt();
+            for (int i = 0; i < annotationCount; i++) {
+                result.getAnnotations().add(reader.readAnnotationData());
+            }
+            LOGGER.debug(LogMarkers.SCAN, "Using Minecraft scan index {}", key.entry());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Discarding unreadable Minecraft scan index {}", key.entry(), e);
+            result.getClasses().clear();
+            result.getAnnotations().clear();
+            return false;
+        }
+    }
+
+    static void store(final Key key, final ModFileScanData result) {
+        final Path entry = key.entry();
+        try {
+            CacheFiles.write(entry, out -> {
+                out.write(CacheFiles.header(MAGIC, FORMAT_VERSION));
+                final ScanDataCodec.Writer writer = new ScanDataCodec.Writer(out);
+                writer.writeString(key.id());
+                writer.writeInt(result.getClasses().size());
+                for (ModFileScanData.ClassData classData : result.getClasses()) {
+                    writer.writeClassData(classData);
+                }
+                writer.writeInt(result.getAnnotations().size());
+                for (ModFileScanData.AnnotationData annotationData : result.getAnnotations()) {
+                    writer.writeAnnotationData(annotationData);
+                }
+                writer.flush();
+            });
+            LOGGER.debug(LogMarkers.SCAN, "Wrote Minecraft scan index {}", entry);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Failed to write Minecraft scan index {}", entry, e);
+        }
+    }
+
+    /**
+     * The index lives in the libraries directory when the launcher provides one, which is shared between
+     * instances, and in the per-game cache otherwise.
+     */
+    private static Optional<Path> indexDirectory() {
+        final String libraries = System.getProperty("libraryDirectory");
+        if (libraries != null && Files.isDirectory(Path.of(libraries))) {
+            return Optional.of(Path.of(libraries, "net", "neoforged", "fml-scan-index"));
+        }
+        return Optional.ofNullable(FMLPaths.CACHEDIR.get()).map(cache -> cache.resolve("minecraft"));
+    }
+}
@@ -8,34 +8,32 @@ package net.neoforged.fml.loading.moddiscovery;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Opcodes;
 
-import java.util.LinkedList;
-
 public class ModAnnotationVisitor extends AnnotationVisitor
 {
     private final ModAnnotation annotation;
-    private LinkedList<ModAnnotation> annotations;
+    private final ModClassVisitor classVisitor;
     private boolean array;
     private String name;
     private boolean isSubAnnotation;
 
-    public ModAnnotationVisitor(LinkedList<ModAnnotation> annotations, ModAnnotation annotation)
+    public ModAnnotationVisitor(ModClassVisitor classVisitor, ModAnnotation annotation)
     {
         super(Opcodes.ASM9);
-        this.annotations = annotations;
+        this.classVisitor = classVisitor;
         this.annotation = annotation;
     }
 
-    public ModAnnotationVisitor(LinkedList<ModAnnotation> annotations, ModAnnotation annotation, String name)
+    public ModAnnotationVisitor(ModClassVisitor classVisitor, ModAnnotation annotation, String name)
     {
-        this(annotations, annotation);
+        this(classVisitor, annotation);
         this.array = true;
         this.name = name;
         annotation.addArray(name);
     }
 
-    public ModAnnotationVisitor(LinkedList<ModAnnotation> annotations, ModAnnotation annotation, boolean isSubAnnotation)
+    public ModAnnotationVisitor(ModClassVisitor classVisitor, ModAnnotation annotation, boolean isSubAnnotation)
     {
-        this(annotations, annotation);
+        this(classVisitor, annotation);
         this.isSubAnnotation = true;
     }
 
@@ -54,15 +52,13 @@ public class ModAnnotationVisitor extends AnnotationVisitor
     @Override
     public AnnotationVisitor visitArray(String name)
     {
-        return new ModAnnotationVisitor(annotations, annotation, name);
+        return new ModAnnotationVisitor(classVisitor, annotation, name);
     }
     @Override
     public AnnotationVisitor visitAnnotation(String name, String desc)
     {
-        ModAnnotation ma = annotations.getFirst();
-        final ModAnnotation childAnnotation = ma.addChildAnnotation(name, desc);
-        annotations.addFirst(childAnnotation);
-        return new ModAnnotationVisitor(annotations, childAnnotation,true);
+        final ModAnnotation childAnnotation = annotation.addChildAnnotation(name, desc);
+        return new ModAnnotationVisitor(classVisitor, childAnnotation,true);
     }
     @Override
     public void visitEnd()
@@ -74,8 +70,7 @@ public class ModAnnotationVisitor extends AnnotationVisitor
 
         if (isSubAnnotation)
         {
-            ModAnnotation child = annotations.removeFirst();
-            annotations.addLast(child);
+            classVisitor.childAnnotationVisited(annotation);
         }
     }
 }
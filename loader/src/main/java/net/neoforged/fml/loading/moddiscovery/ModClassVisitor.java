@@ -14,18 +14,30 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
 import java.lang.annotation.ElementType;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Predicate;
 
+/**
+ * Collects the class data and interesting annotations of a single class.
+ * <p>
+ * An instance can be reused for any number of classes, one at a time; its state is reset whenever a new class is
+ * visited. The values of annotations that fail {@link ModFileScanData#interestingAnnotations()} are skipped, but
+ * interesting annotations nested in them are still reported.
+ */
 public class ModClassVisitor extends ClassVisitor
 {
+    private final Predicate<Type> interestingAnnotations = ModFileScanData.interestingAnnotations();
+    private final ModFieldVisitor fieldVisitor = new ModFieldVisitor(this);
+    private final ModMethodVisitor methodVisitor = new ModMethodVisitor(this);
+    // Top level annotations in visit order, and nested annotations in the order their visit completed
+    private final List<ModAnnotation> annotations = new ArrayList<>();
+    private final List<ModAnnotation> childAnnotations = new ArrayList<>();
     private Type asmType;
     private Type asmSuperType;
     private Set<Type> interfaces;
-    private final LinkedList<ModAnnotation> annotations = new LinkedList<>();
     public ModClassVisitor()
     {
         super(Opcodes.ASM9);
@@ -35,38 +47,93 @@ public class ModClassVisitor extends ClassVisitor
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces)
     {
+        this.annotations.clear();
+        this.childAnnotations.clear();
         this.asmType = Type.getObjectType(name);
         this.asmSuperType = superName != null && superName.length() > 0 ? Type.getObjectType(superName) : null;
-        this.interfaces = Stream.of(interfaces).map(Type::getObjectType).collect(Collectors.toSet());
+        this.interfaces = new HashSet<>(interfaces.length);
+        for (String itf : interfaces) {
+            this.interfaces.add(Type.getObjectType(itf));
+        }
     }
 
     @Override
     public AnnotationVisitor visitAnnotation(final String annotationName, final boolean runtimeVisible)
     {
-        ModAnnotation ann = new ModAnnotation(ElementType.TYPE, Type.getType(annotationName), this.asmType.getClassName());
-        annotations.addFirst(ann);
-        return new ModAnnotationVisitor(annotations, ann);
+        return visitAnnotation(ElementType.TYPE, annotationName, this.asmType.getClassName());
     }
 
 
     @Override
     public FieldVisitor visitField(int access, String name, String desc, String signature, Object value)
     {
-        return new ModFieldVisitor(name, annotations);
+        fieldVisitor.setField(name);
+        return fieldVisitor;
     }
 
     @Override
     public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions)
     {
-        return new ModMethodVisitor(name, desc, annotations);
+        methodVisitor.setMethod(name, desc);
+        return methodVisitor;
+    }
+
+    AnnotationVisitor visitAnnotation(final ElementType elementType, final String annotationName, final String member)
+    {
+        final Type type = Type.getType(annotationName);
+        if (!interestingAnnotations.test(type)) return new NestedAnnotationFinder(elementType, member);
+        ModAnnotation ann = new ModAnnotation(elementType, type, member);
+        annotations.add(ann);
+        return new ModAnnotationVisitor(this, ann);
+    }
+
+    void childAnnotationVisited(final ModAnnotation child)
+    {
+        if (interestingAnnotations.test(child.getASMType())) {
+            childAnnotations.add(child);
+        }
     }
 
     public void buildData(final Set<ModFileScanData.ClassData> classes, final Set<ModFileScanData.AnnotationData> annotations) {
         classes.add(new ModFileScanData.ClassData(this.asmType, this.asmSuperType, this.interfaces));
-        final List<ModFileScanData.AnnotationData> collect = this.annotations.stream().
-                filter(ma->ModFileScanData.interestingAnnotations().test(ma.getASMType())).
-                map(a -> ModAnnotation.fromModAnnotation(this.asmType, a)).collect(Collectors.toList());
-        annotations.addAll(collect);
+        // Top level annotations are reported most recent first, followed by nested ones
+        for (int i = this.annotations.size() - 1; i >= 0; i--) {
+            annotations.add(ModAnnotation.fromModAnnotation(this.asmType, this.annotations.get(i)));
+        }
+        for (ModAnnotation child : this.childAnnotations) {
+            annotations.add(ModAnnotation.fromModAnnotation(this.asmType, child));
+        }
+    }
+
+    /**
+     * Walks an uninteresting annotation without recording its values, looking only for nested annotations.
+     * Nested annotations share the element and member of the annotation they are found in.
+     */
+    private final class NestedAnnotationFinder extends AnnotationVisitor
+    {
+        private final ElementType elementType;
+        private final String member;
+
+        NestedAnnotationFinder(final ElementType elementType, final String member)
+        {
+            super(Opcodes.ASM9);
+            this.elementType = elementType;
+            this.member = member;
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(final String name)
+        {
+            return this;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(final String name, final String desc)
+        {
+            final Type type = Type.getType(desc);
+            if (!interestingAnnotations.test(type)) return this;
+            return new ModAnnotationVisitor(ModClassVisitor.this, new ModAnnotation(elementType, type, member), true);
+        }
     }
 
 }
@@ -12,9 +12,13 @@ import cpw.mods.modlauncher.Launcher;
 import cpw.mods.modlauncher.api.IModuleLayerManager;
 import cpw.mods.modlauncher.util.ServiceLoaderUtils;
 import net.neoforged.fml.loading.EarlyLoadingException;
+import net.neoforged.fml.loading.FMLConfig;
 import net.neoforged.fml.loading.ImmediateWindowHandler;
+import net.neoforged.fml.loading.JarContentsRegistry;
 import net.neoforged.fml.loading.LogMarkers;
 import net.neoforged.fml.loading.UniqueModListBuilder;
+import net.neoforged.fml.loading.profiling.ModDiscoveryEvent;
+import net.neoforged.fml.loading.profiling.StartupTrace;
 import net.neoforged.fml.loading.progress.StartupNotificationManager;
 import net.neoforged.neoforgespi.Environment;
 import net.neoforged.neoforgespi.language.IModFileInfo;
@@ -27,7 +31,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class ModDiscoverer {
@@ -36,8 +44,10 @@ public class ModDiscoverer {
     private final ServiceLoader<IDependencyLocator> dependencyLocators;
     private final List<IModLocator>          modLocatorList;
     private final List<IDependencyLocator>   dependencyLocatorList;
+    private final Map<String, ?>             arguments;
 
     public ModDiscoverer(Map<String, ?> arguments) {
+        this.arguments = arguments;
         Launcher.INSTANCE.environment().computePropertyIfAbsent(Environment.Keys.MODDIRECTORYFACTORY.get(), v->ModsFolderLocator::new);
         Launcher.INSTANCE.environment().computePropertyIfAbsent(Environment.Keys.PROGRESSMESSAGE.get(), v-> StartupNotificationManager.locatorConsumer().orElseGet(()-> s->{}));
         final var moduleLayerManager = Launcher.INSTANCE.environment().findModuleLayerManager().orElseThrow();
@@ -69,10 +79,12 @@ public class ModDiscoverer {
         List<IModFileInfo> brokenFiles = new ArrayList<>();
         ImmediateWindowHandler.updateProgress("Discovering mod files");
         //Loop all mod locators to get the prime mods to load from.
-        for (IModLocator locator : modLocatorList) {
+        //The locators may run concurrently, but their results are always processed in locator order.
+        final List<Supplier<List<IModLocator.ModFileOrException>>> locatorResults = startLocators();
+        for (int i = 0; i < modLocatorList.size(); i++) {
+            final IModLocator locator = modLocatorList.get(i);
             try {
-                LOGGER.debug(LogMarkers.SCAN, "Trying locator {}", locator);
-                var candidates = locator.scanMods();
+                var candidates = locatorResults.get(i).get();
                 LOGGER.debug(LogMarkers.SCAN, "Locator {} found {} candidates or errors", locator, candidates.size());
                 var exceptions = candidates.stream().map(IModLocator.ModFileOrException::ex).filter(Objects::nonNull).toList();
                 if (!exceptions.isEmpty()) {
@@ -120,12 +132,25 @@ public class ModDiscoverer {
         //We can continue loading if prime mods loaded successfully.
         if (successfullyLoadedMods) {
             LOGGER.debug(LogMarkers.SCAN, "Successfully Loaded {} mods. Attempting to load dependencies...", loadedFiles.size());
+            final Optional<String> snapshotKey = DiscoverySnapshot.isEnabled() ? DiscoverySnapshot.fingerprint(loadedFiles, arguments) : Optional.empty();
             for (IDependencyLocator locator : dependencyLocatorList) {
                 try {
                     LOGGER.debug(LogMarkers.SCAN,"Trying locator {}", locator);
                     final List<IModFile> locatedMods = ImmutableList.copyOf(loadedFiles);
 
-                    var locatedFiles = locator.scanMods(locatedMods);
+                    final List<IModFile> locatedFiles;
+                    final ModDiscoveryEvent event = new ModDiscoveryEvent();
+                    event.begin();
+                    try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.DISCOVERY, locator.name())) {
+                        locatedFiles = locator instanceof JarInJarDependencyLocator jarInJar && snapshotKey.isPresent()
+                                ? scanJarInJar(jarInJar, locatedMods, snapshotKey.get())
+                                : locator.scanMods(locatedMods);
+                    }
+                    if (event.shouldCommit()) {
+                        event.locator = locator.name();
+                        event.modFiles = locatedFiles.size();
+                        event.commit();
+                    }
                     if (locatedFiles.stream().anyMatch(file -> !(file instanceof ModFile))) {
                         LOGGER.error(LogMarkers.SCAN, "A dependency locator returned a file which is not a ModFile instance!. They will be skipped!");
                     }
@@ -157,6 +182,13 @@ public class ModDiscoverer {
             LOGGER.error(LogMarkers.SCAN, "Mod Discovery failed. Skipping dependency discovery.");
         }
 
+        // Jars opened during transformer discovery that no locator picked up are not needed anymore
+        JarContentsRegistry.clear();
+        if (successfullyLoadedMods && discoveryErrorData.isEmpty()) {
+            // Every mod file has had its metadata read, the remaining entries belong to jars that are gone
+            ModFileMetadataCache.pruneUnused();
+        }
+
         //Validate the loading. With a deduplicated list, we can now successfully process the artifacts and load
         //transformer plugins.
         var validator = new ModValidator(modFilesMap, brokenFiles, discoveryErrorData);
@@ -164,6 +196,76 @@ public class ModDiscoverer {
         return validator;
     }
 
+    /**
+     * Runs the jar-in-jar locator, reusing the selection of the previous launch if its inputs are unchanged.
+     */
+    private static List<IModFile> scanJarInJar(final JarInJarDependencyLocator locator, final List<IModFile> locatedMods, final String snapshotKey) {
+        final Optional<List<DiscoverySnapshot.Selection>> snapshot = DiscoverySnapshot.load(snapshotKey);
+        if (snapshot.isPresent()) {
+            try {
+                final List<IModFile> selected = locator.loadSelections(locatedMods, snapshot.get());
+                LOGGER.debug(LogMarkers.SCAN, "Loaded {} dependencies from the discovery snapshot", selected.size());
+                return selected;
+            } catch (RuntimeException e) {
+                LOGGER.debug(LogMarkers.SCAN, "Discovery snapshot could not be applied, resolving dependencies again", e);
+            }
+        }
+        final List<IModFile> selected = locator.scanMods(locatedMods);
+        DiscoverySnapshot.store(snapshotKey, locator.selectionsOf(selected));
+        return selected;
+    }
+
+    /**
+     * Starts the built-in mod locators on a pool bounded by {@link FMLConfig.ConfigValue#MAX_THREADS}, unless concurrent
+     * discovery is disabled. Other locators, and all of them if it is disabled, run lazily on the calling thread, one
+     * after another, since {@link IModLocator} doesn't require implementations to be thread safe.
+     * Each returned supplier yields the candidates of the locator at the same index, rethrowing anything the locator threw.
+     */
+    private List<Supplier<List<IModLocator.ModFileOrException>>> startLocators() {
+        final boolean concurrent = FMLConfig.getBoolConfigValue(FMLConfig.ConfigValue.CONCURRENT_MOD_DISCOVERY);
+        final int poolSize = ParallelWork.poolSize((int) modLocatorList.stream().filter(ModDiscoverer::isBuiltIn).count());
+        if (!concurrent || poolSize <= 1) {
+            return modLocatorList.stream().<Supplier<List<IModLocator.ModFileOrException>>>map(locator -> () -> runLocator(locator)).toList();
+        }
+
+        final ExecutorService locatorPool = ParallelWork.newPool("mod-discovery", poolSize);
+        try {
+            return modLocatorList.stream()
+                    .<Supplier<List<IModLocator.ModFileOrException>>>map(locator -> {
+                        if (!isBuiltIn(locator)) return () -> runLocator(locator);
+                        final CompletableFuture<List<IModLocator.ModFileOrException>> future = CompletableFuture.supplyAsync(() -> runLocator(locator), locatorPool);
+                        return () -> ParallelWork.join(future);
+                    })
+                    .toList();
+        } finally {
+            // Already submitted locators keep running, this only releases the threads once they are done
+            locatorPool.shutdown();
+        }
+    }
+
+    /**
+     * {@return whether {@code locator} is one of the loader's own locators, which are safe to run concurrently}
+     */
+    private static boolean isBuiltIn(final IModLocator locator) {
+        return locator.getClass().getModule() == ModDiscoverer.class.getModule()
+                && locator.getClass().getClassLoader() == ModDiscoverer.class.getClassLoader();
+    }
+
+    private static List<IModLocator.ModFileOrException> runLocator(final IModLocator locator) {
+        LOGGER.debug(LogMarkers.SCAN, "Trying locator {}", locator);
+        final ModDiscoveryEvent event = new ModDiscoveryEvent();
+        event.begin();
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.DISCOVERY, locator.name())) {
+            final List<IModLocator.ModFileOrException> candidates = locator.scanMods();
+            if (event.shouldCommit()) {
+                event.locator = locator.name();
+                event.modFiles = candidates.size();
+                event.commit();
+            }
+            return candidates;
+        }
+    }
+
     private void handleLocatedFiles(final List<ModFile> loadedFiles, final List<IModFile> locatedFiles)
     {
         var locatedModFiles = locatedFiles.stream().filter(ModFile.class::isInstance).map(ModFile.class::cast).toList();
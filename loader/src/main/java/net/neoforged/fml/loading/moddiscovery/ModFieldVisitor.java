@@ -8,28 +8,28 @@ package net.neoforged.fml.loading.moddiscovery;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.Type;
 
 import java.lang.annotation.ElementType;
-import java.util.LinkedList;
 
 public class ModFieldVisitor extends FieldVisitor
 {
-    private final LinkedList<ModAnnotation> annotations;
-    private final String fieldName;
+    private final ModClassVisitor classVisitor;
+    private String fieldName;
 
-    public ModFieldVisitor(String name, final LinkedList<ModAnnotation> annotations)
+    public ModFieldVisitor(final ModClassVisitor classVisitor)
     {
         super(Opcodes.ASM9);
+        this.classVisitor = classVisitor;
+    }
+
+    void setField(String name)
+    {
         this.fieldName = name;
-        this.annotations = annotations;
     }
     
     @Override
     public AnnotationVisitor visitAnnotation(String annotationName, boolean runtimeVisible)
     {
-        ModAnnotation ann = new ModAnnotation(ElementType.FIELD, Type.getType(annotationName), fieldName);
-        annotations.addFirst(ann);
-        return new ModAnnotationVisitor(annotations, ann);
+        return classVisitor.visitAnnotation(ElementType.FIELD, annotationName, fieldName);
     }
 }
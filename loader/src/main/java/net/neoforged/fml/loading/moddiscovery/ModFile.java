@@ -10,6 +10,7 @@ import com.mojang.logging.LogUtils;
 import cpw.mods.jarhandling.SecureJar;
 import net.neoforged.fml.loading.FMLLoader;
 import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.fml.loading.VersionCache;
 import net.neoforged.neoforgespi.language.IModFileInfo;
 import net.neoforged.neoforgespi.language.IModInfo;
 import net.neoforged.neoforgespi.language.IModLanguageProvider;
@@ -18,17 +19,20 @@ import net.neoforged.neoforgespi.locating.IModFile;
 import net.neoforged.neoforgespi.locating.IModProvider;
 import net.neoforged.neoforgespi.locating.ModFileFactory;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.slf4j.Logger;
 
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.jar.Attributes;
@@ -50,12 +54,15 @@ public class ModFile implements IModFile {
     private       IModFileInfo modFileInfo;
     private ModFileScanData fileModFileScanData;
     private volatile CompletableFuture<ModFileScanData> futureScanResult;
+    private volatile CompletableFuture<ModFileScanData> classScan;
     private List<CoreModFile> coreMods;
     private List<String> mixinConfigs;
     private List<Path> accessTransformers;
 
     static final Attributes.Name TYPE = new Attributes.Name("FMLModType");
     private SecureJar.Status securityStatus;
+    // Whether the jar contents are exactly one path without a filter, so the file on disk is all there is to them
+    private volatile boolean unfilteredJar;
 
     public ModFile(final SecureJar jar, final IModProvider provider, final ModFileFactory.ModFileInfoParser parser) {
         this(jar, provider, parser, parseType(jar));
@@ -134,7 +141,55 @@ public class ModFile implements IModFile {
      * Run in an executor thread to harvest the class and annotation list
      */
     public ModFileScanData compileContent() {
-        return new Scanner(this).scan();
+        final Scanner scanner = new Scanner(this);
+        final CompletableFuture<ModFileScanData> classScan = this.classScan;
+        this.classScan = null;
+        if (classScan != null) {
+            try {
+                return scanner.finishScan(classScan.join());
+            } catch (CompletionException | CancellationException e) {
+                LOGGER.debug(LogMarkers.SCAN, "Early class scan of {} failed, scanning it again", getFilePath(), e);
+            }
+        }
+        return scanner.scan();
+    }
+
+    /**
+     * Starts collecting the classes and annotations of this file ahead of {@link #compileContent()}, which then only
+     * has to wait for it and run the language loaders.
+     */
+    void startClassScan(final Executor executor) {
+        this.classScan = CompletableFuture.supplyAsync(() -> new Scanner(this).scanClasses(), executor);
+    }
+
+    /**
+     * Drops the result of {@link #startClassScan(Executor)}, for files that turned out not to be loaded.
+     */
+    void discardClassScan() {
+        final CompletableFuture<ModFileScanData> classScan = this.classScan;
+        this.classScan = null;
+        if (classScan != null) {
+            classScan.cancel(false);
+        }
+    }
+
+    /**
+     * Records that the contents of this file were built from its path alone, without further paths or a filter.
+     */
+    void markUnfilteredJar() {
+        this.unfilteredJar = true;
+    }
+
+    /**
+     * {@return the jar backing this mod file, if it is a single regular file on the default file system}
+     * Only such files can be fingerprinted, read directly and cached between launches. Files whose contents were
+     * built from several paths or through a filter have no backing jar, since the jar alone doesn't describe them.
+     */
+    public Optional<Path> getBackingJar() {
+        if (!unfilteredJar || !(provider instanceof AbstractJarFileModProvider)) return Optional.empty();
+        final Path path = getFilePath();
+        if (path.getFileSystem() != FileSystems.getDefault() || !Files.isRegularFile(path)) return Optional.empty();
+        return Optional.of(path);
     }
 
     public void scanFile(Consumer<Path> pathConsumer) {
@@ -218,7 +273,7 @@ public class ModFile implements IModFile {
 
     public ArtifactVersion getJarVersion()
     {
-        return new DefaultArtifactVersion(this.jarVersion);
+        return VersionCache.version(this.jarVersion);
     }
 
     private static String parseType(final SecureJar jar) {
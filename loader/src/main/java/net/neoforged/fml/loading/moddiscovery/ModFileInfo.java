@@ -10,10 +10,10 @@ import com.mojang.logging.LogUtils;
 import cpw.mods.modlauncher.api.LamdbaExceptionUtils;
 import net.neoforged.fml.loading.LogMarkers;
 import net.neoforged.fml.loading.StringUtils;
+import net.neoforged.fml.loading.VersionCache;
 import net.neoforged.neoforgespi.language.IConfigurable;
 import net.neoforged.neoforgespi.language.IModFileInfo;
 import net.neoforged.neoforgespi.language.IModInfo;
-import net.neoforged.neoforgespi.language.MavenVersionAdapter;
 import org.slf4j.Logger;
 import javax.security.auth.x500.X500Principal;
 import java.net.URL;
@@ -61,7 +61,7 @@ public class ModFileInfo implements IModFileInfo, IConfigurable
                 .orElseThrow(()->new InvalidModFileException("Missing ModLoader in file", this));
         // as is modloader version
         var modLoaderVersion = config.<String>getConfigElement("loaderVersion")
-                .map(MavenVersionAdapter::createFromVersionSpec)
+                .map(VersionCache::range)
                 .orElseThrow(()->new InvalidModFileException("Missing ModLoader version in file", this));
         this.languageSpecs = new ArrayList<>(List.of(new LanguageSpec(modLoader, modLoaderVersion)));
         // the remaining properties are optional with sensible defaults
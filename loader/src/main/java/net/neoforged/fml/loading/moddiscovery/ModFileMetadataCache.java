@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.FMLConfig;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.LogMarkers;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the raw metadata of mod jars, their {@code mods.toml} tree and {@code coremods.json} entries, in a binary
+ * cache keyed by {@link JarFingerprint}, so unchanged jars don't go through the TOML parser on every launch.
+ * <p>
+ * Only the parsed input is cached; {@link ModFileInfo} and {@link ModInfo} are still built and validated from it
+ * as usual, since they depend on the mod file and the running environment. Entries of jars that a complete
+ * discovery did not read are deleted by {@link #pruneUnused()}.
+ */
+final class ModFileMetadataCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAGIC = 0x464d4c4d; // FMLM
+    private static final int FORMAT_VERSION = 2;
+    // The mods.toml of a file is read twice during discovery, keep what was loaded for the second time
+    private static final Map<Path, Entry> LOADED = new ConcurrentHashMap<>();
+
+    /**
+     * @param modsToml the contents of {@code META-INF/mods.toml}, or null if the jar has none
+     * @param coreMods the entries of {@code META-INF/coremods.json}, empty if the jar has none
+     */
+    record Metadata(Map<String, Object> modsToml, Map<String, String> coreMods) {}
+
+    private record Entry(JarFingerprint fingerprint, Metadata metadata) {}
+
+    private ModFileMetadataCache() {}
+
+    static boolean isEnabled() {
+        return FMLConfig.getBoolConfigValue(FMLConfig.ConfigValue.METADATA_CACHE) && FMLPaths.CACHEDIR.get() != null;
+    }
+
+    /**
+     * {@return the metadata of {@code file}, read from the cache or parsed and then cached, or empty if the file can't be cached}
+     */
+    static Optional<Metadata> get(final ModFile file) {
+        if (!isEnabled()) return Optional.empty();
+        final Optional<Path> jar = file.getBackingJar();
+        if (jar.isEmpty()) return Optional.empty();
+        final JarFingerprint fingerprint;
+        try {
+            fingerprint = JarFingerprint.of(jar.get());
+        } catch (IOException e) {
+            LOGGER.debug(LogMarkers.LOADING, "Unable to fingerprint {} for the metadata cache", jar.get(), e);
+            return Optional.empty();
+        }
+        final Entry loaded = LOADED.get(jar.get());
+        if (loaded != null && loaded.fingerprint().equals(fingerprint)) return Optional.of(loaded.metadata());
+
+        final Path entry = entryPath(jar.get());
+        Metadata metadata = read(entry, fingerprint);
+        if (metadata == null) {
+            try {
+                metadata = new Metadata(ModFileParser.readModsToml(file).map(ModFileMetadataCache::toMap).orElse(null), ModFileParser.readCoreModPaths(file));
+            } catch (IOException | RuntimeException e) {
+                // Leave the error reporting to the regular parser
+                LOGGER.debug(LogMarkers.LOADING, "Unable to read the metadata of {} for the metadata cache", jar.get(), e);
+                return Optional.empty();
+            }
+            write(entry, fingerprint, metadata);
+        } else {
+            CacheFiles.markUsed(entry);
+            LOGGER.debug(LogMarkers.LOADING, "Using cached metadata for {}", jar.get());
+        }
+        LOADED.put(jar.get(), new Entry(fingerprint, metadata));
+        return Optional.of(metadata);
+    }
+
+    /**
+     * {@return a config with the contents of a cached {@code mods.toml} tree}
+     */
+    static UnmodifiableConfig toConfig(final Map<String, Object> values) {
+        final Config config = Config.inMemory();
+        values.forEach((key, value) -> config.set(List.of(key), fromCached(value)));
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object fromCached(final Object value) {
+        if (value instanceof Map<?, ?> map) return toConfig((Map<String, Object>) map);
+        if (value instanceof List<?> list) {
+            final List<Object> converted = new ArrayList<>(list.size());
+            for (Object element : list) converted.add(fromCached(element));
+            return converted;
+        }
+        return value;
+    }
+
+    private static Map<String, Object> toMap(final UnmodifiableConfig config) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        config.valueMap().forEach((key, value) -> values.put(key, toCached(value)));
+        return values;
+    }
+
+    private static Object toCached(final Object value) {
+        if (value instanceof UnmodifiableConfig config) return toMap(config);
+        if (value instanceof List<?> list) {
+            final List<Object> converted = new ArrayList<>(list.size());
+            for (Object element : list) converted.add(toCached(element));
+            return converted;
+        }
+        return value;
+    }
+
+    /**
+     * Deletes the entries of jars whose metadata was not read during this launch. Called once discovery has read every mod file.
+     */
+    static void pruneUnused() {
+        if (isEnabled()) CacheFiles.pruneUnused(directory());
+    }
+
+    private static Path directory() {
+        return FMLPaths.CACHEDIR.get().resolve("metadata");
+    }
+
+    private static Path entryPath(final Path jar) {
+        return directory().resolve(JarFingerprint.hashOf(jar.toAbsolutePath().normalize().toString()) + ".bin");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Metadata read(final Path entry, final JarFingerprint fingerprint) {
+        if (!Files.isRegularFile(entry)) return null;
+        try {
+            final ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(entry));
+            if (!CacheFiles.matchesHeader(in, CacheFiles.header(MAGIC, FORMAT_VERSION)) || !fingerprint.matches(in)) return null;
+            final ScanDataCodec.Reader reader = new ScanDataCodec.Reader(in);
+            final Map<String, Object> modsToml = (Map<String, Object>) reader.readValue();
+            final Map<String, String> coreMods = (Map<String, String>) reader.readValue();
+            return new Metadata(modsToml, coreMods);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.LOADING, "Discarding unreadable metadata cache entry {}", entry, e);
+            return null;
+        }
+    }
+
+    private static void write(final Path entry, final JarFingerprint fingerprint, final Metadata metadata) {
+        try {
+            CacheFiles.write(entry, out -> {
+                out.write(CacheFiles.header(MAGIC, FORMAT_VERSION));
+                fingerprint.write(out);
+                final ScanDataCodec.Writer writer = new ScanDataCodec.Writer(out);
+                writer.writeValue(metadata.modsToml());
+                writer.writeValue(metadata.coreMods());
+                writer.flush();
+            });
+        } catch (IOException | RuntimeException e) {
+            // Values the codec doesn't know, like TOML dates, end up here and the jar is simply not cached
+            LOGGER.debug(LogMarkers.LOADING, "Failed to write metadata cache entry for {}", entry, e);
+        }
+    }
+}
@@ -5,6 +5,7 @@
 
 package net.neoforged.fml.loading.moddiscovery;
 
+import com.electronwill.nightconfig.core.UnmodifiableConfig;
 import com.electronwill.nightconfig.core.file.FileConfig;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
@@ -34,32 +35,42 @@ public class ModFileParser {
     public static IModFileInfo modsTomlParser(final IModFile imodFile) {
         ModFile modFile = (ModFile) imodFile;
         LOGGER.debug(LogMarkers.LOADING,"Considering mod file candidate {}", modFile.getFilePath());
-        final Path modsjson = modFile.findResource("META-INF", "mods.toml");
-        if (!Files.exists(modsjson)) {
+        final Optional<UnmodifiableConfig> config = ModFileMetadataCache.get(modFile)
+                .map(metadata -> Optional.ofNullable(metadata.modsToml()).map(ModFileMetadataCache::toConfig))
+                .orElseGet(() -> readModsToml(modFile));
+        if (config.isEmpty()) {
             LOGGER.warn(LogMarkers.LOADING, "Mod file {} is missing mods.toml file", modFile.getFilePath());
             return null;
         }
 
+        final NightConfigWrapper configWrapper = new NightConfigWrapper(config.get());
+        return new ModFileInfo(modFile, configWrapper, configWrapper::setFile);
+    }
+
+    static Optional<UnmodifiableConfig> readModsToml(final ModFile modFile) {
+        final Path modsjson = modFile.findResource("META-INF", "mods.toml");
+        if (!Files.exists(modsjson)) {
+            return Optional.empty();
+        }
+
         final FileConfig fileConfig = FileConfig.builder(modsjson).build();
         fileConfig.load();
         fileConfig.close();
-        final NightConfigWrapper configWrapper = new NightConfigWrapper(fileConfig);
-        return new ModFileInfo(modFile, configWrapper, configWrapper::setFile);
+        return Optional.of(fileConfig);
     }
 
     protected static List<CoreModFile> getCoreMods(final ModFile modFile) {
         Map<String,String> coreModPaths;
-        try {
-            final Path coremodsjson = modFile.findResource("META-INF", "coremods.json");
-            if (!Files.exists(coremodsjson)) {
+        final Optional<ModFileMetadataCache.Metadata> cached = ModFileMetadataCache.get(modFile);
+        if (cached.isPresent()) {
+            coreModPaths = cached.get().coreMods();
+        } else {
+            try {
+                coreModPaths = readCoreModPaths(modFile);
+            } catch (IOException e) {
+                LOGGER.debug(LogMarkers.LOADING,"Failed to read coremod list coremods.json", e);
                 return Collections.emptyList();
             }
-            final Type type = new TypeToken<Map<String, String>>() {}.getType();
-            final Gson gson = new Gson();
-            coreModPaths = gson.fromJson(Files.newBufferedReader(coremodsjson), type);
-        } catch (IOException e) {
-            LOGGER.debug(LogMarkers.LOADING,"Failed to read coremod list coremods.json", e);
-            return Collections.emptyList();
         }
 
         return coreModPaths.entrySet().stream()
@@ -68,6 +79,19 @@ public class ModFileParser {
                 .toList();
     }
 
+    static Map<String, String> readCoreModPaths(final ModFile modFile) throws IOException {
+        final Path coremodsjson = modFile.findResource("META-INF", "coremods.json");
+        if (!Files.exists(coremodsjson)) {
+            return Collections.emptyMap();
+        }
+        final Type type = new TypeToken<Map<String, String>>() {}.getType();
+        final Gson gson = new Gson();
+        try (var reader = Files.newBufferedReader(coremodsjson)) {
+            final Map<String, String> coreModPaths = gson.fromJson(reader, type);
+            return coreModPaths == null ? Collections.emptyMap() : coreModPaths;
+        }
+    }
+
     protected static List<String> getMixinConfigs(IModFileInfo modFileInfo) {
         try {
             var config = modFileInfo.getConfig();
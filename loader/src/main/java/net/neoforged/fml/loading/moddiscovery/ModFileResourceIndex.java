@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.LogMarkers;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Narrows resource lookups over the whole mod list down to the mod files that may contain the resource, so a lookup
+ * doesn't need a file system probe per mod file.
+ * <p>
+ * The index is built from the central directories of the mod jars, hashed when {@link JarFingerprint} read them
+ * during discovery; only jars that were not fingerprinted are read again. It only keeps a hash of each resource name,
+ * including implied parent directories, tagged with the index of the mod file, so no entry names stay in memory.
+ * A hash can collide, and the central directory can list entries the mod file's own view hides, so every candidate
+ * is still checked with {@link ModFile#findResource(String...)}, the same check as a plain probe. Mod files without a
+ * backing jar, such as exploded directories or the filtered Minecraft jar, and jars with entry names that don't map
+ * one to one onto paths (leading slashes, {@code .} or {@code ..} segments, backslashes) are probed on every lookup,
+ * as are names the index can't answer for.
+ */
+public final class ModFileResourceIndex {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final long[] NONE = new long[0];
+
+    private final List<ModFileInfo> files;
+    // Sorted name hashes, with the index of the mod file in the low fileBits bits
+    private final long[] keys;
+    private final int fileBits;
+    private final int[] unindexed;
+
+    private ModFileResourceIndex(final List<ModFileInfo> files, final long[] keys, final int fileBits, final int[] unindexed) {
+        this.files = files;
+        this.keys = keys;
+        this.fileBits = fileBits;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * Builds the index of {@code files}. Lookups return owners in the order of this list.
+     */
+    public static ModFileResourceIndex of(final List<ModFileInfo> files) {
+        final int fileBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, files.size() - 1));
+        // Jars fingerprinted during discovery come with their hashes, only the others are read here
+        final List<long[]> hashes = new ArrayList<>(files.size());
+        final List<Integer> toRead = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            hashes.add(takeResourceHashes(files.get(i)));
+            if (hashes.get(i) == null && files.get(i).getFile().getBackingJar().isPresent()) toRead.add(i);
+        }
+        final List<long[]> read = ParallelWork.map("resource-index", toRead, i -> readResourceHashes(files.get(i)));
+        for (int i = 0; i < toRead.size(); i++) {
+            hashes.set(toRead.get(i), read.get(i));
+        }
+        JarFingerprint.forgetResourceHashes();
+        final List<long[]> fileKeys = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            fileKeys.add(hashes.get(i) == null ? null : keysOf(hashes.get(i), i, fileBits));
+        }
+        final List<Integer> unindexed = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < files.size(); i++) {
+            if (fileKeys.get(i) == null) {
+                unindexed.add(i);
+            } else {
+                total += fileKeys.get(i).length;
+            }
+        }
+        final long[] keys = new long[total];
+        int pos = 0;
+        for (long[] k : fileKeys) {
+            if (k == null) continue;
+            System.arraycopy(k, 0, keys, pos, k.length);
+            pos += k.length;
+        }
+        Arrays.parallelSort(keys);
+        LOGGER.debug(LogMarkers.LOADING, "Indexed {} resources of {} mod files, {} mod files are not indexed", keys.length, files.size() - unindexed.size(), unindexed.size());
+        return new ModFileResourceIndex(files, keys, fileBits, unindexed.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * {@return the first mod file containing {@code resourceName}, or null if there is none}
+     */
+    public ModFileInfo findOwner(final String resourceName) {
+        final List<ModFileInfo> found = findOwners(resourceName, true);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * {@return all mod files containing {@code resourceName}, in mod list order}
+     */
+    public List<ModFileInfo> findOwners(final String resourceName) {
+        return findOwners(resourceName, false);
+    }
+
+    private List<ModFileInfo> findOwners(final String resourceName, final boolean firstOnly) {
+        final String name = resourceName.startsWith("/") ? resourceName.substring(1) : resourceName;
+        if (!isIndexable(name)) {
+            return probe(IntStream.range(0, files.size()).toArray(), name, firstOnly);
+        }
+        return probe(merge(unindexed, candidates(name)), name, firstOnly);
+    }
+
+    /**
+     * {@return the indices of the mod files whose jar lists {@code name} or a name with the same hash, ascending}
+     */
+    private int[] candidates(final String name) {
+        final long hash = hash(name) & ~fileMask();
+        int i = Arrays.binarySearch(keys, hash);
+        if (i < 0) i = -i - 1;
+        int end = i;
+        while (end < keys.length && (keys[end] & ~fileMask()) == hash) end++;
+        final int[] found = new int[end - i];
+        for (int k = i; k < end; k++) {
+            found[k - i] = (int) (keys[k] & fileMask());
+        }
+        return found;
+    }
+
+    private long fileMask() {
+        return (1L << fileBits) - 1;
+    }
+
+    /**
+     * Checks each of {@code candidates} the way a plain lookup over the mod list would, keeping mod list order.
+     */
+    private List<ModFileInfo> probe(final int[] candidates, final String name, final boolean firstOnly) {
+        final List<ModFileInfo> found = new ArrayList<>(firstOnly ? 1 : Math.min(candidates.length, 4));
+        for (int index : candidates) {
+            final ModFileInfo file = files.get(index);
+            if (!Files.exists(file.getFile().findResource(name))) continue;
+            found.add(file);
+            if (firstOnly) break;
+        }
+        return found;
+    }
+
+    private static int[] merge(final int[] a, final int[] b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        final int[] merged = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length || j < b.length) {
+            merged[k++] = j >= b.length || (i < a.length && a[i] < b[j]) ? a[i++] : b[j++];
+        }
+        return merged;
+    }
+
+    /**
+     * {@return the sorted, distinct hashes of {@code names} and their parent directories, or null if the names can't be indexed}
+     */
+    static long[] resourceHashes(final List<String> names) {
+        long[] hashes = new long[names.size() * 2];
+        int size = 0;
+        for (String entry : names) {
+            // Directory entries end with a slash, the file system view doesn't
+            final String name = entry.endsWith("/") ? entry.substring(0, entry.length() - 1) : entry;
+            if (!isIndexable(name)) return null;
+            // Parent directories exist even if the jar has no entry for them
+            for (int end = name.length(); end > 0; end = name.lastIndexOf('/', end - 1)) {
+                if (size == hashes.length) hashes = Arrays.copyOf(hashes, size * 2);
+                hashes[size++] = hash(name, end);
+            }
+        }
+        Arrays.sort(hashes, 0, size);
+        return distinct(hashes, size);
+    }
+
+    /**
+     * {@return the sorted, distinct keys of the mod file at {@code index} with the sorted resource hashes {@code hashes}}
+     */
+    private static long[] keysOf(final long[] hashes, final int index, final int fileBits) {
+        final long fileMask = (1L << fileBits) - 1;
+        final long[] keys = new long[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            // Masking keeps the order but may make neighbouring keys equal
+            keys[i] = (hashes[i] & ~fileMask) | index;
+        }
+        return distinct(keys, keys.length);
+    }
+
+    private static long[] distinct(final long[] sorted, final int size) {
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[distinct++] = sorted[i];
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    private static long[] takeResourceHashes(final ModFileInfo file) {
+        final Optional<Path> jar = file.getFile().getBackingJar();
+        if (jar.isEmpty()) return null;
+        try {
+            return JarFingerprint.takeResourceHashes(jar.get());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static long[] readResourceHashes(final ModFileInfo file) {
+        final Path jar = file.getFile().getBackingJar().orElseThrow();
+        try {
+            return DirectJar.entryNames(jar).map(ModFileResourceIndex::resourceHashes).orElse(null);
+        } catch (IOException e) {
+            LOGGER.debug(LogMarkers.LOADING, "Unable to index the resources of {}", jar, e);
+            return null;
+        }
+    }
+
+    private static long hash(final String name) {
+        return hash(name, name.length());
+    }
+
+    /**
+     * 64 bit FNV-1a of the first {@code length} chars of {@code name}, with a final mix so the high bits,
+     * which are all the index keeps, depend on every char.
+     */
+    private static long hash(final String name, final int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            h = (h ^ name.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static boolean isIndexable(final String name) {
+        if (name.isEmpty() || name.startsWith("/") || name.endsWith("/") || name.contains("//") || name.contains("\\")) return false;
+        for (String segment : name.split("/")) {
+            if (segment.equals(".") || segment.equals("..")) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.FMLConfig;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.slf4j.Logger;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Persists the classes and annotations found by {@link Scanner} for each mod jar under the game directory, so
+ * unchanged jars do not need to be walked again on the next launch.
+ * <p>
+ * Entries are keyed by the jar's {@link JarFingerprint}; a mismatch in size, modification time or central directory
+ * hash, or an entry written by another loader build, discards the entry and the jar is scanned normally. Any I/O
+ * problem with the cache is logged and treated as a miss. Entries of jars that were not scanned by a complete scan
+ * are deleted by {@link #pruneUnused()}.
+ */
+final class ModFileScanCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int MAGIC = 0x464d4c53; // FMLS
+    private static final int FORMAT_VERSION = 2;
+
+    private ModFileScanCache() {}
+
+    static boolean isEnabled() {
+        return FMLConfig.getBoolConfigValue(FMLConfig.ConfigValue.SCAN_CACHE) && FMLPaths.CACHEDIR.get() != null;
+    }
+
+    /**
+     * {@return the fingerprint under which the scan data of {@code file} is cached, or empty if it can't be cached}
+     */
+    static Optional<JarFingerprint> fingerprint(final ModFile file) {
+        if (!isEnabled()) return Optional.empty();
+        return file.getBackingJar().flatMap(jar -> {
+            try {
+                return Optional.of(JarFingerprint.of(jar));
+            } catch (IOException e) {
+                LOGGER.debug(LogMarkers.SCAN, "Unable to fingerprint {} for the scan cache", jar, e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Fills {@code result} with the cached classes and annotations of {@code file}.
+     *
+     * @return true if a valid entry matching {@code fingerprint} was found
+     */
+    static boolean load(final ModFile file, final JarFingerprint fingerprint, final ModFileScanData result) {
+        final Optional<Path> jar = file.getBackingJar();
+        if (jar.isEmpty()) return false;
+        final Path entry = entryPath(jar.get());
+        if (!Files.isRegularFile(entry)) return false;
+        try {
+            if (read(entry, fingerprint, result)) {
+                CacheFiles.markUsed(entry);
+                LOGGER.debug(LogMarkers.SCAN, "Using cached scan data for {}", jar.get());
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Discarding unreadable scan cache entry {} for {}", entry, jar.get(), e);
+            result.getClasses().clear();
+            result.getAnnotations().clear();
+        }
+        return false;
+    }
+
+    static void store(final ModFile file, final JarFingerprint fingerprint, final ModFileScanData result) {
+        final Optional<Path> jar = file.getBackingJar();
+        if (jar.isEmpty()) return;
+        try {
+            CacheFiles.write(entryPath(jar.get()), out -> write(out, fingerprint, result));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(LogMarkers.SCAN, "Failed to write scan cache entry for {}", jar.get(), e);
+        }
+    }
+
+    /**
+     * Deletes the entries of jars that were neither loaded nor stored during this launch. Called once every mod file has been scanned.
+     */
+    static void pruneUnused() {
+        if (isEnabled()) CacheFiles.pruneUnused(directory());
+    }
+
+    private static Path directory() {
+        return FMLPaths.CACHEDIR.get().resolve("scan");
+    }
+
+    private static Path entryPath(final Path jar) {
+        return directory().resolve(JarFingerprint.hashOf(jar.toAbsolutePath().normalize().toString()) + ".bin");
+    }
+
+    private static void write(final DataOutputStream dos, final JarFingerprint fingerprint, final ModFileScanData result) throws IOException {
+        writeHeader(dos, fingerprint);
+        final ScanDataCodec.Writer writer = new ScanDataCodec.Writer(dos);
+        writer.writeInt(result.getClasses().size());
+        for (ModFileScanData.ClassData classData : result.getClasses()) {
+            writer.writeClassData(classData);
+        }
+        writer.writeInt(result.getAnnotations().size());
+        for (ModFileScanData.AnnotationData annotationData : result.getAnnotations()) {
+            writer.writeAnnotationData(annotationData);
+        }
+        writer.flush();
+    }
+
+    private static boolean read(final Path entry, final JarFingerprint fingerprint, final ModFileScanData result) throws IOException {
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            // Check the header through a plain read first, so stale entries are never mapped and can still be replaced
+            final byte[] expectedHeader = CacheFiles.header(MAGIC, FORMAT_VERSION);
+            final int headerLength = expectedHeader.length + fingerprint.encodedLength();
+            final ByteBuffer header = ByteBuffer.allocate(headerLength);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) return false;
+            }
+            header.flip();
+            if (!CacheFiles.matchesHeader(header, expectedHeader) || !fingerprint.matches(header)) return false;
+
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, headerLength, channel.size() - headerLength);
+            final ScanDataCodec.Reader reader = new ScanDataCodec.Reader(buffer);
+            final int classCount = reader.readInt();
+            for (int i = 0; i < classCount; i++) {
+                result.getClasses().add(reader.readClassData());
+            }
+            final int annotationCount = reader.readInt();
+            for (int i = 0; i < annotationCount; i++) {
+                result.getAnnotations().add(reader.readAnnotationData());
+            }
+            return true;
+        }
+    }
+
+    private static void writeHeader(final DataOutputStream dos, final JarFingerprint fingerprint) throws IOException {
+        dos.write(CacheFiles.header(MAGIC, FORMAT_VERSION));
+        fingerprint.write(dos);
+    }
+}
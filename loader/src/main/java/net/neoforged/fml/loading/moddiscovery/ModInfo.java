@@ -8,9 +8,9 @@ package net.neoforged.fml.loading.moddiscovery;
 import com.mojang.logging.LogUtils;
 import net.neoforged.fml.loading.StringSubstitutor;
 import net.neoforged.fml.loading.StringUtils;
+import net.neoforged.fml.loading.VersionCache;
 import net.neoforged.neoforgespi.language.IConfigurable;
 import net.neoforged.neoforgespi.language.IModInfo;
-import net.neoforged.neoforgespi.language.MavenVersionAdapter;
 import net.neoforged.neoforgespi.locating.ForgeFeature;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
@@ -70,7 +70,7 @@ public class ModInfo implements IModInfo, IConfigurable
         }
         this.version = config.<String>getConfigElement("version")
                 .map(s -> StringSubstitutor.replace(s, ownFile.map(ModFileInfo::getFile).orElse(null)))
-                .map(DefaultArtifactVersion::new)
+                .map(VersionCache::version)
                 .orElse(DEFAULT_VERSION);
         // verify we have a valid mod version
         if (!VALID_VERSION.matcher(this.version.toString()).matches()) {
@@ -216,7 +216,7 @@ public class ModInfo implements IModInfo, IConfigurable
             this.mandatory = config.<Boolean>getConfigElement("mandatory")
                     .orElseThrow(()->new InvalidModFileException("Missing required field mandatory in dependency", getOwningFile()));
             this.versionRange = config.<String>getConfigElement("versionRange")
-                    .map(MavenVersionAdapter::createFromVersionSpec)
+                    .map(VersionCache::range)
                     .orElse(UNBOUNDED);
             this.ordering = config.<String>getConfigElement("ordering")
                     .map(Ordering::valueOf)
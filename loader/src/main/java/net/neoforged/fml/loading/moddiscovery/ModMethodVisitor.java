@@ -8,31 +8,31 @@ package net.neoforged.fml.loading.moddiscovery;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.Type;
 
 import java.lang.annotation.ElementType;
-import java.util.LinkedList;
 
 public class ModMethodVisitor extends MethodVisitor {
 
-    private final LinkedList<ModAnnotation> annotations;
+    private final ModClassVisitor classVisitor;
     private String methodName;
     private String methodDescriptor;
 
-    public ModMethodVisitor(String name, String desc, final LinkedList<ModAnnotation> annotations)
+    public ModMethodVisitor(final ModClassVisitor classVisitor)
     {
         super(Opcodes.ASM9);
+        this.classVisitor = classVisitor;
+    }
+
+    void setMethod(String name, String desc)
+    {
         this.methodName = name;
         this.methodDescriptor = desc;
-        this.annotations = annotations;
     }
 
     @Override
     public AnnotationVisitor visitAnnotation(String annotationName, boolean runtimeVisible)
     {
-        ModAnnotation ann = new ModAnnotation(ElementType.METHOD, Type.getType(annotationName), methodName+methodDescriptor);
-        annotations.addFirst(ann);
-        return new ModAnnotationVisitor(annotations, ann);
+        return classVisitor.visitAnnotation(ElementType.METHOD, annotationName, methodName+methodDescriptor);
     }
 
 }
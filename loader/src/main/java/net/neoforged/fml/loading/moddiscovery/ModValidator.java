@@ -9,6 +9,8 @@ import com.mojang.logging.LogUtils;
 import cpw.mods.modlauncher.api.IModuleLayerManager;
 import cpw.mods.modlauncher.api.ITransformationService;
 import net.neoforged.fml.loading.*;
+import net.neoforged.fml.loading.profiling.DependencySortEvent;
+import net.neoforged.fml.loading.profiling.StartupTrace;
 import net.neoforged.neoforgespi.language.IModFileInfo;
 import net.neoforged.neoforgespi.locating.IModFile;
 import org.jetbrains.annotations.NotNull;
@@ -27,6 +29,7 @@ public class ModValidator {
     private final List<ModFile> candidatePlugins;
     private final List<ModFile> candidateMods;
     private LoadingModList loadingModList;
+    private BackgroundScanHandler backgroundScanHandler;
     private List<IModFile> brokenFiles;
     private final List<EarlyLoadingException.ExceptionData> discoveryErrorData;
 
@@ -50,20 +53,24 @@ public class ModValidator {
             LOGGER.debug(LogMarkers.SCAN, "Found {} mod files with {} mods", candidateMods.size(), candidateMods.stream().mapToInt(mf -> mf.getModInfos().size()).sum());
         }
         ImmediateWindowHandler.updateProgress("Found "+candidateMods.size()+" mod candidates");
+        // Class scanning needs nothing from stage 2, so let it overlap with language validation and sorting
+        backgroundScanHandler = new BackgroundScanHandler();
+        // Files without mod file info never make it into the sorted mod list, so they aren't worth scanning
+        backgroundScanHandler.startEarlyScan(candidateMods.stream().filter(mf -> mf.getModFileInfo() instanceof ModFileInfo).toList());
     }
 
     @NotNull
     private List<ModFile> validateFiles(final List<ModFile> mods) {
+        // Identifying a file reads its metadata, coremods and access transformers, which is independent per file.
+        final List<Boolean> valid = ParallelWork.map("mod-validation", mods, modFile -> modFile.getProvider().isValid(modFile) && modFile.identifyMods());
         final List<ModFile> brokenFiles = new ArrayList<>();
-        for (Iterator<ModFile> iterator = mods.iterator(); iterator.hasNext(); )
-        {
-            ModFile modFile = iterator.next();
-            if (!modFile.getProvider().isValid(modFile) || !modFile.identifyMods()) {
-                LOGGER.warn(LogMarkers.SCAN, "File {} has been ignored - it is invalid", modFile.getFilePath());
-                iterator.remove();
-                brokenFiles.add(modFile);
-            }
+        for (int i = 0; i < mods.size(); i++) {
+            if (!valid.get(i)) brokenFiles.add(mods.get(i));
+        }
+        for (ModFile modFile : brokenFiles) {
+            LOGGER.warn(LogMarkers.SCAN, "File {} has been ignored - it is invalid", modFile.getFilePath());
         }
+        mods.removeAll(brokenFiles);
         return brokenFiles;
     }
 
@@ -100,12 +107,23 @@ public class ModValidator {
         var allErrors = new ArrayList<>(errors);
         allErrors.addAll(this.discoveryErrorData);
 
-        loadingModList = ModSorter.sort(candidateMods, allErrors);
+        final DependencySortEvent event = new DependencySortEvent();
+        event.begin();
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.SORT, "mod sort")) {
+            loadingModList = ModSorter.sort(candidateMods, allErrors);
+        }
+        if (event.shouldCommit()) {
+            event.modFiles = candidateMods.size();
+            event.sortedMods = loadingModList.getMods().size();
+            event.commit();
+        }
         loadingModList.addCoreMods();
         loadingModList.addAccessTransformers();
         loadingModList.addMixinConfigs();
         loadingModList.setBrokenFiles(brokenFiles);
-        BackgroundScanHandler backgroundScanHandler = new BackgroundScanHandler();
+        if (backgroundScanHandler == null) {
+            backgroundScanHandler = new BackgroundScanHandler();
+        }
         loadingModList.addForScanning(backgroundScanHandler);
         return backgroundScanHandler;
     }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import net.neoforged.fml.loading.FMLConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs independent discovery work on threads bounded by {@link FMLConfig.ConfigValue#MAX_THREADS}.
+ * <p>
+ * The threads get the context class loader of the thread starting the work, like the scan pool's, since the work
+ * runs locator and mod file code that may load classes through it. Work started on one of these threads runs on
+ * that thread, so work nested in a concurrent locator doesn't multiply the number of threads.
+ */
+final class ParallelWork {
+    private static final ThreadLocal<Boolean> WORKER = ThreadLocal.withInitial(() -> false);
+
+    private ParallelWork() {}
+
+    /**
+     * {@return the number of threads to use for {@code tasks} independent tasks}
+     */
+    static int poolSize(final int tasks) {
+        return Math.min(tasks, FMLConfig.getIntConfigValue(FMLConfig.ConfigValue.MAX_THREADS));
+    }
+
+    /**
+     * {@return a pool of {@code size} daemon threads named after {@code name}, with the calling thread's context class loader}
+     */
+    static ExecutorService newPool(final String name, final int size) {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(size, r -> {
+            final Thread thread = new Thread(() -> {
+                WORKER.set(true);
+                r.run();
+            }, name + "-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        });
+    }
+
+    /**
+     * Applies {@code action} to every input, in parallel unless this already runs on a worker thread.
+     *
+     * @return the results, in the order of {@code inputs}
+     */
+    static <T, R> List<R> map(final String name, final List<T> inputs, final Function<? super T, ? extends R> action) {
+        final int poolSize = poolSize(inputs.size());
+        if (poolSize <= 1 || WORKER.get()) {
+            final List<R> results = new ArrayList<>(inputs.size());
+            for (T input : inputs) {
+                results.add(action.apply(input));
+            }
+            return results;
+        }
+        final ExecutorService pool = newPool(name, poolSize);
+        try {
+            final List<CompletableFuture<R>> futures = new ArrayList<>(inputs.size());
+            for (T input : inputs) {
+                futures.add(CompletableFuture.supplyAsync(() -> action.apply(input), pool));
+            }
+            final List<R> results = new ArrayList<>(inputs.size());
+            for (CompletableFuture<R> future : futures) {
+                results.add(join(future));
+            }
+            return results;
+        } finally {
+            // Tasks still running after a failure finish on their own, this only releases the threads
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * {@return the result of {@code future}, rethrowing what its task threw as is}
+     */
+    static <R> R join(final CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
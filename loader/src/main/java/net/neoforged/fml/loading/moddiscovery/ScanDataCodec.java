@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.moddiscovery;
+
+import net.neoforged.neoforgespi.language.ModFileScanData;
+import org.objectweb.asm.Type;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.ElementType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary encoding of {@link ModFileScanData.ClassData} and {@link ModFileScanData.AnnotationData}, as produced by
+ * {@link ModClassVisitor}, for the on-disk scan caches. Plain values (strings, boxed primitives, lists and string keyed
+ * maps of those) can be written on their own as well.
+ * <p>
+ * Strings are written once per stream and referenced by index afterwards, since the same type descriptors
+ * repeat across most classes of a jar.
+ */
+final class ScanDataCodec {
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte TYPE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte BYTE = 4;
+    private static final byte CHAR = 5;
+    private static final byte SHORT = 6;
+    private static final byte INT = 7;
+    private static final byte LONG = 8;
+    private static final byte FLOAT = 9;
+    private static final byte DOUBLE = 10;
+    private static final byte ENUM = 11;
+    private static final byte LIST = 12;
+    private static final byte MAP = 13;
+    private static final byte BOOLEAN_ARRAY = 14;
+    private static final byte BYTE_ARRAY = 15;
+    private static final byte CHAR_ARRAY = 16;
+    private static final byte SHORT_ARRAY = 17;
+    private static final byte INT_ARRAY = 18;
+    private static final byte LONG_ARRAY = 19;
+    private static final byte FLOAT_ARRAY = 20;
+    private static final byte DOUBLE_ARRAY = 21;
+
+    private ScanDataCodec() {}
+
+    static final class Writer {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(final OutputStream out) {
+            this.out = out instanceof DataOutputStream dos ? dos : new DataOutputStream(out);
+        }
+
+        void writeInt(final int value) throws IOException {
+            out.writeInt(value);
+        }
+
+        void writeLong(final long value) throws IOException {
+            out.writeLong(value);
+        }
+
+        void writeString(final String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            final Integer index = strings.get(value);
+            if (index != null) {
+                out.writeInt(index);
+                return;
+            }
+            final int newIndex = strings.size();
+            strings.put(value, newIndex);
+            out.writeInt(newIndex);
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        void writeType(final Type type) throws IOException {
+            writeString(type == null ? null : type.getDescriptor());
+        }
+
+        void writeClassData(final ModFileScanData.ClassData classData) throws IOException {
+            writeType(classData.clazz());
+            writeType(classData.parent());
+            out.writeInt(classData.interfaces().size());
+            for (Type itf : classData.interfaces()) {
+                writeType(itf);
+            }
+        }
+
+        void writeAnnotationData(final ModFileScanData.AnnotationData annotationData) throws IOException {
+            writeType(annotationData.annotationType());
+            writeString(annotationData.targetType().name());
+            writeType(annotationData.clazz());
+            writeString(annotationData.memberName());
+            writeValue(annotationData.annotationData());
+        }
+
+        void writeValue(final Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String s) {
+                out.writeByte(STRING);
+                writeString(s);
+            } else if (value instanceof Type t) {
+                out.writeByte(TYPE);
+                writeType(t);
+            } else if (value instanceof Boolean b) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            } else if (value instanceof Byte b) {
+                out.writeByte(BYTE);
+                out.writeByte(b);
+            } else if (value instanceof Character c) {
+                out.writeByte(CHAR);
+                out.writeChar(c);
+            } else if (value instanceof Short s) {
+                out.writeByte(SHORT);
+                out.writeShort(s);
+            } else if (value instanceof Integer i) {
+                out.writeByte(INT);
+                out.writeInt(i);
+            } else if (value instanceof Long l) {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            } else if (value instanceof Float f) {
+                out.writeByte(FLOAT);
+                out.writeFloat(f);
+            } else if (value instanceof Double d) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            } else if (value instanceof ModAnnotation.EnumHolder e) {
+                out.writeByte(ENUM);
+                writeString(e.getDesc());
+                writeString(e.getValue());
+            } else if (value instanceof List<?> list) {
+                out.writeByte(LIST);
+                out.writeInt(list.size());
+                for (Object o : list) {
+                    writeValue(o);
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                out.writeByte(MAP);
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeString((String) entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof boolean[] a) {
+                out.writeByte(BOOLEAN_ARRAY);
+                out.writeInt(a.length);
+                for (boolean v : a) out.writeBoolean(v);
+            } else if (value instanceof byte[] a) {
+                out.writeByte(BYTE_ARRAY);
+                out.writeInt(a.length);
+                out.write(a);
+            } else if (value instanceof char[] a) {
+                out.writeByte(CHAR_ARRAY);
+                out.writeInt(a.length);
+                for (char v : a) out.writeChar(v);
+            } else if (value instanceof short[] a) {
+                out.writeByte(SHORT_ARRAY);
+                out.writeInt(a.length);
+                for (short v : a) out.writeShort(v);
+            } else if (value instanceof int[] a) {
+                out.writeByte(INT_ARRAY);
+                out.writeInt(a.length);
+                for (int v : a) out.writeInt(v);
+            } else if (value instanceof long[] a) {
+                out.writeByte(LONG_ARRAY);
+                out.writeInt(a.length);
+                for (long v : a) out.writeLong(v);
+            } else if (value instanceof float[] a) {
+                out.writeByte(FLOAT_ARRAY);
+                out.writeInt(a.length);
+                for (float v : a) out.writeFloat(v);
+            } else if (value instanceof double[] a) {
+                out.writeByte(DOUBLE_ARRAY);
+                out.writeInt(a.length);
+                for (double v : a) out.writeDouble(v);
+            } else {
+                throw new IOException("Unsupported annotation value type " + value.getClass().getName());
+            }
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    static final class Reader {
+        private final ByteBuffer in;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(final ByteBuffer in) {
+            this.in = in;
+        }
+
+        int readInt() {
+            return in.getInt();
+        }
+
+        long readLong() {
+            return in.getLong();
+        }
+
+        String readString() {
+            final int index = in.getInt();
+            if (index < 0) return null;
+            if (index < strings.size()) return strings.get(index);
+            if (index != strings.size()) throw new IllegalStateException("Corrupt string table");
+            final byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            final String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        Type readType() {
+            final String descriptor = readString();
+            return descriptor == null ? null : Type.getType(descriptor);
+        }
+
+        ModFileScanData.ClassData readClassData() {
+            final Type clazz = readType();
+            final Type parent = readType();
+            final int interfaceCount = in.getInt();
+            final Set<Type> interfaces = new HashSet<>(interfaceCount);
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaces.add(readType());
+            }
+            return new ModFileScanData.ClassData(clazz, parent, interfaces);
+        }
+
+        @SuppressWarnings("unchecked")
+        ModFileScanData.AnnotationData readAnnotationData() {
+            final Type annotationType = readType();
+            final ElementType targetType = ElementType.valueOf(readString());
+            final Type clazz = readType();
+            final String memberName = readString();
+            final Map<String, Object> values = (Map<String, Object>) readValue();
+            return new ModFileScanData.AnnotationData(annotationType, targetType, clazz, memberName, values);
+        }
+
+        Object readValue() {
+            final byte tag = in.get();
+            switch (tag) {
+                case NULL: return null;
+                case STRING: return readString();
+                case TYPE: return readType();
+                case BOOLEAN: return in.get() != 0;
+                case BYTE: return in.get();
+                case CHAR: return in.getChar();
+                case SHORT: return in.getShort();
+                case INT: return in.getInt();
+                case LONG: return in.getLong();
+                case FLOAT: return in.getFloat();
+                case DOUBLE: return in.getDouble();
+                case ENUM: return new ModAnnotation.EnumHolder(readString(), readString());
+                case LIST: {
+                    final int size = in.getInt();
+                    final List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) list.add(readValue());
+                    return list;
+                }
+                case MAP: {
+                    final int size = in.getInt();
+                    final Map<String, Object> map = new HashMap<>();
+                    for (int i = 0; i < size; i++) {
+                        final String key = readString();
+                        map.put(key, readValue());
+                    }
+                    return map;
+                }
+                case BOOLEAN_ARRAY: {
+                    final boolean[] a = new boolean[in.getInt()];
+                    for (int i = 0; i < a.length; i++) a[i] = in.get() != 0;
+                    return a;
+                }
+                case BYTE_ARRAY: {
+                    final byte[] a = new byte[in.getInt()];
+                    in.get(a);
+                    return a;
+                }
+                case CHAR_ARRAY: {
+                    final char[] a = new char[in.getInt()];
+                    for (int i = 0; i < a.length; i++) a[i] = in.getChar();
+                    return a;
+                }
+                case SHORT_ARRAY: {
+                    final short[] a = new short[in.getInt()];
+                    for (int i = 0; i < a.length; i++) a[i] = in.getShort();
+                    return a;
+                }
+                case INT_ARRAY: {
+                    final int[] a = new int[in.getInt()];
+                    for (int i = 0; i < a.length; i++) a[i] = in.getInt();
+                    return a;
+                }
+                case LONG_ARRAY: {
+                    final long[] a = new long[in.getInt()];
+                    for (int i = 0; i < a.length; i++) a[i] = in.getLong();
+                    return a;
+                }
+                case FLOAT_ARRAY: {
+                    final float[] a = new float[in.getInt()];
+                    for (int i = 0; i < a.length; i++) a[i] = in.getFloat();
+                    return a;
+                }
+                case DOUBLE_ARRAY: {
+                    final double[] a = new double[in.getInt()];
+                    for (int i = 0; i < a.length; i++) a[i] = in.getDouble();
+                    return a;
+                }
+                default: throw new IllegalStateException("Corrupt scan data, unknown value tag " + tag);
+            }
+        }
+    }
+}
@@ -6,20 +6,42 @@
 package net.neoforged.fml.loading.moddiscovery;
 
 import com.mojang.logging.LogUtils;
+import cpw.mods.jarhandling.SecureJar;
 import net.neoforged.fml.loading.LogMarkers;
+import net.neoforged.fml.loading.profiling.JarScanEvent;
+import net.neoforged.fml.loading.profiling.StartupTrace;
 import net.neoforged.neoforgespi.language.IModLanguageProvider;
 import net.neoforged.neoforgespi.language.ModFileScanData;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
 
 public class Scanner {
     private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Predicate<Type> INTERESTING_ANNOTATIONS = ModFileScanData.interestingAnnotations();
+    private static final ThreadLocal<ModClassVisitor> CLASS_VISITOR = ThreadLocal.withInitial(ModClassVisitor::new);
+    // Jars with more classes than this are split so their classes can be scanned by several threads
+    private static final int CLASSES_PER_CHUNK = 512;
+    private static final int CONSTANT_UTF8 = 1;
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations".getBytes(StandardCharsets.US_ASCII);
     private final ModFile fileToScan;
 
     public Scanner(final ModFile fileToScan) {
@@ -27,9 +49,78 @@ public class Scanner {
     }
 
     public ModFileScanData scan() {
+        return finishScan(scanClasses());
+    }
+
+    /**
+     * Collects the classes and annotations of the file.
+     * This depends on nothing decided during mod validation, so it may run before the file is known to be loaded.
+     */
+    ModFileScanData scanClasses() {
         ModFileScanData result = new ModFileScanData();
+        final JarScanEvent event = new JarScanEvent();
+        event.begin();
+        try (StartupTrace.Span span = StartupTrace.begin(StartupTrace.SCAN, fileToScan.getFileName())) {
+            readOrLoadClasses(result);
+            span.arg("classes", result.getClasses().size());
+        }
+        if (event.shouldCommit()) {
+            event.jar = fileToScan.getFileName();
+            event.classCount = result.getClasses().size();
+            event.bytes = fileToScan.getBackingJar().map(Scanner::sizeOf).orElse(-1L);
+            event.commit();
+        }
+        return result;
+    }
+
+    private static long sizeOf(final Path jar) {
+        try {
+            return Files.size(jar);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void readOrLoadClasses(final ModFileScanData result) {
+        final Optional<MinecraftScanIndex.Key> indexKey = MinecraftScanIndex.key(fileToScan);
+        if (indexKey.isPresent()) {
+            if (!MinecraftScanIndex.load(indexKey.get(), result)) {
+                readClasses(result);
+                MinecraftScanIndex.store(indexKey.get(), result);
+            }
+            return;
+        }
+        if (isSigned()) {
+            // Only the secure jar's own file system verifies the signature of each class, and sets the security status
+            fileToScan.scanFile(p -> fileVisitor(p, result));
+            return;
+        }
+        final Optional<JarFingerprint> cacheKey = ModFileScanCache.fingerprint(fileToScan);
+        if (cacheKey.isPresent() && ModFileScanCache.load(fileToScan, cacheKey.get(), result)) {
+            setUnsignedStatus(!result.getClasses().isEmpty());
+            return;
+        }
+        readClasses(result);
+        cacheKey.ifPresent(key -> ModFileScanCache.store(fileToScan, key, result));
+    }
+
+    private boolean isSigned() {
+        return fileToScan.getBackingJar().isPresent() && fileToScan.getSecureJar().hasSecurityData();
+    }
+
+    /**
+     * Sets the security status {@link AbstractJarFileModProvider#scanFile} gives a jar without signatures:
+     * {@link SecureJar.Status#NONE} for every class, or {@link SecureJar.Status#INVALID} if there are no classes.
+     */
+    private void setUnsignedStatus(final boolean hasClasses) {
+        fileToScan.setSecurityStatus(hasClasses ? SecureJar.Status.NONE : SecureJar.Status.INVALID);
+    }
+
+    /**
+     * Completes the result of {@link #scanClasses()} with the mod file info and the file visitors of the file's language loaders.
+     */
+    ModFileScanData finishScan(final ModFileScanData result) {
         result.addModFileInfo(fileToScan.getModFileInfo());
-        fileToScan.scanFile(p -> fileVisitor(p, result));
         final List<IModLanguageProvider> loaders = fileToScan.getLoaders();
         if (loaders != null) {
             loaders.forEach(loader -> {
@@ -40,15 +131,198 @@ public class Scanner {
         return result;
     }
 
+    private void readClasses(final ModFileScanData result) {
+        if (fileToScan.getProvider() instanceof ExplodedDirectoryLocator && ExplodedScanCache.isEnabled()) {
+            readExplodedClasses(result);
+            return;
+        }
+        final Optional<Path> jar = fileToScan.getBackingJar();
+        if (jar.isPresent()) {
+            try {
+                final Optional<DirectJar> directJar = DirectJar.open(jar.get());
+                if (directJar.isPresent()) {
+                    try (DirectJar opened = directJar.get()) {
+                        scanDirectJar(opened, result);
+                        setUnsignedStatus(!opened.classEntries().isEmpty());
+                    }
+                    return;
+                }
+            } catch (IOException e) {
+                LOGGER.debug(LogMarkers.SCAN, "Unable to read {} directly, falling back to its file system", jar.get(), e);
+                result.getClasses().clear();
+                result.getAnnotations().clear();
+            }
+        }
+        fileToScan.scanFile(p -> fileVisitor(p, result));
+    }
+
+    /**
+     * Scans an exploded mod directory, visiting only the class files that were added or changed since the last scan.
+     */
+    private void readExplodedClasses(final ModFileScanData result) {
+        final Map<String, ExplodedScanCache.ClassEntry> previous = ExplodedScanCache.load(fileToScan);
+        final Map<String, ExplodedScanCache.ClassEntry> current = new LinkedHashMap<>();
+        final ModFileScanData classResult = new ModFileScanData();
+        fileToScan.scanFile(path -> {
+            final String key = path.toString();
+            long size = -1;
+            long lastModified = -1;
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                size = attributes.size();
+                lastModified = attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                // Unknown attributes never match, so the file is visited again
+            }
+            ExplodedScanCache.ClassEntry entry = previous.get(key);
+            if (entry == null || size < 0 || entry.size() != size || entry.lastModified() != lastModified) {
+                fileVisitor(path, classResult);
+                entry = new ExplodedScanCache.ClassEntry(size, lastModified, List.copyOf(classResult.getClasses()), List.copyOf(classResult.getAnnotations()));
+                classResult.getClasses().clear();
+                classResult.getAnnotations().clear();
+            }
+            current.put(key, entry);
+            result.getClasses().addAll(entry.classes());
+            result.getAnnotations().addAll(entry.annotations());
+        });
+        if (LOGGER.isDebugEnabled(LogMarkers.SCAN)) {
+            final long reused = current.entrySet().stream().filter(e -> previous.get(e.getKey()) == e.getValue()).count();
+            LOGGER.debug(LogMarkers.SCAN, "Reused the scan results of {} of {} classes in {}", reused, current.size(), fileToScan.getFilePath());
+        }
+        ExplodedScanCache.store(fileToScan, current);
+    }
+
+    private void scanDirectJar(final DirectJar jar, final ModFileScanData result) throws IOException {
+        LOGGER.debug(LogMarkers.SCAN, "Scan started: {}", fileToScan);
+        final List<DirectJar.Entry> entries = jar.classEntries();
+        if (entries.size() > CLASSES_PER_CHUNK && ForkJoinTask.inForkJoinPool()) {
+            scanChunks(jar, entries, result);
+        } else {
+            scanEntries(jar, entries, result);
+        }
+        LOGGER.debug(LogMarkers.SCAN, "Scan finished: {}", fileToScan);
+    }
+
+    /**
+     * Splits a large jar into chunks of class entries that other workers of the current pool can pick up.
+     * Each chunk collects into its own scan data, which is merged in entry order once all chunks are done,
+     * so the result is the same as scanning the jar sequentially.
+     */
+    private void scanChunks(final DirectJar jar, final List<DirectJar.Entry> entries, final ModFileScanData result) throws IOException {
+        final List<ForkJoinTask<ModFileScanData>> chunks = new ArrayList<>();
+        for (int start = 0; start < entries.size(); start += CLASSES_PER_CHUNK) {
+            final List<DirectJar.Entry> chunk = entries.subList(start, Math.min(entries.size(), start + CLASSES_PER_CHUNK));
+            chunks.add(ForkJoinTask.adapt(() -> {
+                final ModFileScanData chunkResult = new ModFileScanData();
+                try {
+                    scanEntries(jar, chunk, chunkResult);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return chunkResult;
+            }));
+        }
+        try {
+            ForkJoinTask.invokeAll(chunks);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (ForkJoinTask<ModFileScanData> chunk : chunks) {
+            final ModFileScanData chunkResult = chunk.join();
+            result.getClasses().addAll(chunkResult.getClasses());
+            result.getAnnotations().addAll(chunkResult.getAnnotations());
+        }
+    }
+
+    private void scanEntries(final DirectJar jar, final List<DirectJar.Entry> entries, final ModFileScanData result) throws IOException {
+        for (DirectJar.Entry entry : entries) {
+            LOGGER.debug(LogMarkers.SCAN, "Scanning {} path {}", fileToScan, entry.name());
+            try {
+                visitClass(jar.read(entry), entry.size(), result);
+            } catch (IllegalArgumentException e) {
+                // mark path bad
+            }
+        }
+    }
+
     private void fileVisitor(final Path path, final ModFileScanData result) {
         LOGGER.debug(LogMarkers.SCAN,"Scanning {} path {}", fileToScan, path);
         try (InputStream in = Files.newInputStream(path)){
-            ModClassVisitor mcv = new ModClassVisitor();
-            ClassReader cr = new ClassReader(in);
-            cr.accept(mcv, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
-            mcv.buildData(result.getClasses(), result.getAnnotations());
+            final byte[] classFile = in.readAllBytes();
+            visitClass(classFile, classFile.length, result);
         } catch (IOException | IllegalArgumentException e) {
             // mark path bad
         }
     }
+
+    /**
+     * Visits the class file held in the first {@code length} bytes of {@code classFile}.
+     */
+    static void visitClass(final byte[] classFile, final int length, final ModFileScanData result) {
+        final ClassReader cr = new ClassReader(classFile, 0, length);
+        if (!mayHaveInterestingAnnotations(cr, classFile)) {
+            result.getClasses().add(readClassData(cr));
+            return;
+        }
+        ModClassVisitor mcv = CLASS_VISITOR.get();
+        cr.accept(mcv, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+        mcv.buildData(result.getClasses(), result.getAnnotations());
+    }
+
+    /**
+     * Checks the constant pool for what {@link ModClassVisitor} would report: the name of an annotation attribute,
+     * and the descriptor of an annotation type that passes {@link ModFileScanData#interestingAnnotations()}.
+     * Annotation types are referenced by descriptor from the constant pool, so a class missing either can carry no
+     * interesting class, field or method annotation, and only its header is needed.
+     *
+     * @param b the buffer {@code cr} reads from, starting at offset 0
+     */
+    static boolean mayHaveInterestingAnnotations(final ClassReader cr, final byte[] b) {
+        boolean hasAttribute = false;
+        for (int i = 1; i < cr.getItemCount() && !hasAttribute; i++) {
+            final int offset = cr.getItem(i);
+            // the second slot of long and double constants has no item
+            if (offset == 0 || b[offset - 1] != CONSTANT_UTF8) continue;
+            final int length = cr.readUnsignedShort(offset);
+            hasAttribute = utf8Equals(b, offset + 2, length, RUNTIME_VISIBLE_ANNOTATIONS) || utf8Equals(b, offset + 2, length, RUNTIME_INVISIBLE_ANNOTATIONS);
+        }
+        if (!hasAttribute) return false;
+        for (int i = 1; i < cr.getItemCount(); i++) {
+            final int offset = cr.getItem(i);
+            if (offset == 0 || b[offset - 1] != CONSTANT_UTF8) continue;
+            if (isInterestingDescriptor(b, offset + 2, cr.readUnsignedShort(offset))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Field descriptors of other types are tested as well, which at worst costs a full visit of the class.
+     */
+    private static boolean isInterestingDescriptor(final byte[] b, final int start, final int length) {
+        if (length < 3 || b[start] != 'L' || b[start + length - 1] != ';') return false;
+        for (int i = start; i < start + length; i++) {
+            // Generic signatures are no descriptors. Names beyond ASCII are taken as interesting rather than decoding modified UTF-8
+            if (b[i] == '<') return false;
+            if (b[i] < 0) return true;
+        }
+        return INTERESTING_ANNOTATIONS.test(Type.getType(new String(b, start, length, StandardCharsets.US_ASCII)));
+    }
+
+    private static boolean utf8Equals(final byte[] b, final int start, final int length, final byte[] expected) {
+        if (length != expected.length) return false;
+        for (int i = 0; i < length; i++) {
+            if (b[start + i] != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static ModFileScanData.ClassData readClassData(final ClassReader cr) {
+        final String superName = cr.getSuperName();
+        final String[] interfaceNames = cr.getInterfaces();
+        final Set<Type> interfaces = new HashSet<>(interfaceNames.length);
+        for (String interfaceName : interfaceNames) {
+            interfaces.add(Type.getObjectType(interfaceName));
+        }
+        return new ModFileScanData.ClassData(Type.getObjectType(cr.getClassName()), superName != null && !superName.isEmpty() ? Type.getObjectType(superName) : null, interfaces);
+    }
 }
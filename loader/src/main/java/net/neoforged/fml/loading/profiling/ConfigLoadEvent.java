@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.ConfigLoad")
+@Label("Config Load")
+@Category({"NeoForge", "FML"})
+@Description("Loading or reloading a mod config file.")
+@StackTrace(false)
+public final class ConfigLoadEvent extends Event {
+    @Label("File")
+    public String file;
+    @Label("Mod Id")
+    public String modId;
+    @Label("Type")
+    public String type;
+    @Label("Reload")
+    public boolean reload;
+}
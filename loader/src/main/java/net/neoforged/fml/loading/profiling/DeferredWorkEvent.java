@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.DeferredWork")
+@Label("Deferred Work")
+@Category({"NeoForge", "FML"})
+@Description("A task a mod enqueued to run on the main thread during a loading stage.")
+@StackTrace(false)
+public final class DeferredWorkEvent extends Event {
+    @Label("Mod Id")
+    public String modId;
+    @Label("Stage")
+    public String stage;
+}
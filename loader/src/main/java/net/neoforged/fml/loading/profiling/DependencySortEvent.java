@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.DependencySort")
+@Label("Dependency Sort")
+@Category({"NeoForge", "FML"})
+@Description("Deduplicating, validating and sorting the mod files by their dependencies.")
+@StackTrace(false)
+public final class DependencySortEvent extends Event {
+    @Label("Mod Files")
+    public int modFiles;
+    @Label("Sorted Mods")
+    public int sortedMods;
+}
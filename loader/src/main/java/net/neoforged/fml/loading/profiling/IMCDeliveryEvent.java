@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.IMCDelivery")
+@Label("IMC Delivery")
+@Category({"NeoForge", "FML"})
+@Description("An inter mod message handed to the receiving mod, lasting until the mod has processed it.")
+@StackTrace(false)
+public final class IMCDeliveryEvent extends Event {
+    @Label("Sender")
+    public String senderModId;
+    @Label("Receiver")
+    public String modId;
+    @Label("Method")
+    public String method;
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.JarScan")
+@Label("Jar Scan")
+@Category({"NeoForge", "FML"})
+@Description("Collecting the classes and annotations of one mod file, from the scan caches or the jar itself.")
+@StackTrace(false)
+public final class JarScanEvent extends Event {
+    @Label("Jar")
+    public String jar;
+    @Label("Class Count")
+    public int classCount;
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
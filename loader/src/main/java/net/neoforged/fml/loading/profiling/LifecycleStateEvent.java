@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.LifecycleState")
+@Label("Lifecycle State")
+@Category({"NeoForge", "FML"})
+@Description("A mod loading state transition, from its start until all mods completed it.")
+@StackTrace(false)
+public final class LifecycleStateEvent extends Event {
+    @Label("State")
+    public String state;
+}
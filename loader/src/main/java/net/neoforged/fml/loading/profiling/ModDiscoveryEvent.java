@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.ModDiscovery")
+@Label("Mod Discovery")
+@Category({"NeoForge", "FML"})
+@Description("A mod or dependency locator looking for mod files.")
+@StackTrace(false)
+public final class ModDiscoveryEvent extends Event {
+    @Label("Locator")
+    public String locator;
+    @Label("Mod Files")
+    public int modFiles;
+}
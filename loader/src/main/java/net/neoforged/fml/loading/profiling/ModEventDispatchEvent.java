@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.neoforged.fml.ModEventDispatch")
+@Label("Mod Event Dispatch")
+@Category({"NeoForge", "FML"})
+@Description("A mod bus event posted to the event bus of one mod.")
+@StackTrace(false)
+public final class ModEventDispatchEvent extends Event {
+    @Label("Mod Id")
+    public String modId;
+    @Label("Event Class")
+    public Class<?> eventClass;
+    @Label("Phase")
+    public String phase;
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.profiling;
+
+import com.google.gson.stream.JsonWriter;
+import com.mojang.logging.LogUtils;
+import net.neoforged.fml.loading.LogMarkers;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records spans of the loader's startup work on all threads and writes them as Chrome Trace Event JSON once mod
+ * loading completes, for viewers like Perfetto or {@code chrome://tracing}.
+ * <p>
+ * Tracing is off unless the {@value #OUTPUT_PROPERTY} system property names the file to write, for example
+ * {@code -Dfml.startupTrace=startup-trace.json}. While it is off, {@link #begin(String, String)} returns a shared
+ * span that records nothing. If the game exits before {@link #finish()} is called, for example because loading
+ * failed, the spans recorded so far are written when the JVM shuts down.
+ */
+public final class StartupTrace {
+    public static final String OUTPUT_PROPERTY = "fml.startupTrace";
+    public static final String PHASE = "phase";
+    public static final String DISCOVERY = "discovery";
+    public static final String SCAN = "scan";
+    public static final String SORT = "sort";
+    public static final String STATE = "state";
+    public static final String EVENT = "event";
+    public static final String DEFERRED_WORK = "deferred work";
+    public static final String CONFIG = "config";
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final Path OUTPUT = output();
+    private static final boolean ENABLED = OUTPUT != null;
+    private static final long START = System.nanoTime();
+    private static final Queue<Span> SPANS = new ConcurrentLinkedQueue<>();
+    private static final Map<Long, String> THREAD_NAMES = new ConcurrentHashMap<>();
+    private static final Span DISABLED = new Span(null, null);
+    private static final AtomicBoolean WRITTEN = new AtomicBoolean();
+    private static volatile boolean recording = ENABLED;
+
+    static {
+        if (ENABLED) {
+            // Logging may already be shut down when the hook runs, so it only reports failures to stderr
+            final Thread writer = new Thread(() -> finish(false), "fml-startup-trace");
+            Runtime.getRuntime().addShutdownHook(writer);
+            LOGGER.info(LogMarkers.CORE, "Recording a startup trace to {}", OUTPUT);
+        }
+    }
+
+    private StartupTrace() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts a span on the current thread, which ends when it is closed.
+     *
+     * @param category the group of the span, one of the constants of this class
+     * @param name     what the span does, such as the mod id or file it works on
+     */
+    public static Span begin(final String category, final String name) {
+        if (!recording) return DISABLED;
+        final Thread thread = Thread.currentThread();
+        THREAD_NAMES.putIfAbsent(thread.getId(), thread.getName());
+        return new Span(category, name);
+    }
+
+    public static final class Span implements AutoCloseable {
+        private final String category;
+        private final String name;
+        private final long threadId;
+        private final long start;
+        private long end;
+        private List<Map.Entry<String, String>> args;
+
+        private Span(final String category, final String name) {
+            this.category = category;
+            this.name = name;
+            this.threadId = Thread.currentThread().getId();
+            this.start = category == null ? 0 : System.nanoTime();
+        }
+
+        /**
+         * Adds a value that is shown with the span, such as a class count.
+         */
+        public Span arg(final String key, final Object value) {
+            if (category == null) return this;
+            if (args == null) args = new ArrayList<>(2);
+            args.add(Map.entry(key, String.valueOf(value)));
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (category == null || !recording) return;
+            end = System.nanoTime();
+            SPANS.add(this);
+        }
+    }
+
+    /**
+     * Stops recording and writes the trace. Called once mod loading completes; later calls do nothing, and spans
+     * that are still open are not written.
+     */
+    public static void finish() {
+        finish(true);
+    }
+
+    private static void finish(final boolean log) {
+        if (!ENABLED || !WRITTEN.compareAndSet(false, true)) return;
+        recording = false;
+        try {
+            final int count = write();
+            if (log) LOGGER.info(LogMarkers.CORE, "Wrote {} startup trace spans to {}", count, OUTPUT);
+        } catch (IOException e) {
+            if (log) {
+                LOGGER.error(LogMarkers.CORE, "Unable to write the startup trace to {}", OUTPUT, e);
+            } else {
+                System.err.println("Unable to write the startup trace to " + OUTPUT + ": " + e);
+            }
+        } finally {
+            SPANS.clear();
+            THREAD_NAMES.clear();
+        }
+    }
+
+    private static Path output() {
+        final String output = System.getProperty(OUTPUT_PROPERTY);
+        return output == null || output.isBlank() ? null : Path.of(output).toAbsolutePath();
+    }
+
+    private static int write() throws IOException {
+        final long pid = ProcessHandle.current().pid();
+        int count = 0;
+        try (Writer out = Files.newBufferedWriter(OUTPUT, StandardCharsets.UTF_8); JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+            json.name("displayTimeUnit").value("ms");
+            json.name("traceEvents").beginArray();
+            for (Map.Entry<Long, String> thread : THREAD_NAMES.entrySet()) {
+                json.beginObject();
+                json.name("ph").value("M");
+                json.name("name").value("thread_name");
+                json.name("pid").value(pid);
+                json.name("tid").value(thread.getKey());
+                json.name("args").beginObject().name("name").value(thread.getValue()).endObject();
+                json.endObject();
+            }
+            for (Span span : SPANS) {
+                // Complete events, timestamps are in microseconds since the trace started
+                json.beginObject();
+                json.name("ph").value("X");
+                json.name("cat").value(span.category);
+                json.name("name").value(span.name);
+                json.name("pid").value(pid);
+                json.name("tid").value(span.threadId);
+                json.name("ts").value((span.start - START) / 1000.0);
+                json.name("dur").value((span.end - span.start) / 1000.0);
+                if (span.args != null) {
+                    json.name("args").beginObject();
+                    for (Map.Entry<String, String> arg : span.args) {
+                        json.name(arg.getKey()).value(arg.getValue());
+                    }
+                    json.endObject();
+                }
+                json.endObject();
+                count++;
+            }
+            json.endArray();
+            json.endObject();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.targets;
+
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.fml.loading.bench.BenchPhases;
+import net.neoforged.fml.loading.bench.SyntheticPackGenerator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runs FML over a pack made by {@link SyntheticPackGenerator} without Minecraft, to measure the loader on its own.
+ * <p>
+ * The game directory must hold the generated pack. Instead of starting the game, the mod loading phases are driven
+ * directly and the time and allocation of each phase is printed.
+ */
+public class FMLBenchLaunchHandler extends CommonLaunchHandler {
+    private static final String RUNNER_MODULE = "fml_core";
+    private static final String RUNNER_CLASS = "net.neoforged.fml.bench.FMLBenchRunner";
+
+    @Override public String name() { return BenchPhases.LAUNCH_TARGET; }
+    @Override public Dist getDist() { return Dist.DEDICATED_SERVER; }
+    @Override public String getNaming() { return "mcp"; }
+
+    @Override
+    public LocatedPaths getMinecraftPaths() {
+        final Path stub = FMLLoader.getGamePath().resolve(SyntheticPackGenerator.MINECRAFT_STUB);
+        if (!Files.isRegularFile(stub)) {
+            throw new IllegalStateException("Missing " + stub + ", generate a pack with " + SyntheticPackGenerator.class.getName() + " first");
+        }
+        return new LocatedPaths(List.of(stub), null, List.of(), getFmlPaths(getLegacyClasspath()));
+    }
+
+    @Override
+    protected void runService(final String[] arguments, final ModuleLayer gameLayer) throws Throwable {
+        Class.forName(gameLayer.findModule(RUNNER_MODULE).orElseThrow(), RUNNER_CLASS).getMethod("main", String[].class).invoke(null, (Object) arguments);
+    }
+}
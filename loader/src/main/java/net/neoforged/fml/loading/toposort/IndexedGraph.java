@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.fml.loading.toposort;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A directed graph over the dense node ids {@code 0} to {@code nodeCount - 1}, with the successors of all nodes
+ * stored in one array in compressed sparse row form.
+ *
+ * <p>Parallel edges are merged and self loops are rejected, matching a Guava graph built with
+ * {@code GraphBuilder.directed()}.
+ */
+public final class IndexedGraph {
+    private final int nodeCount;
+    private final int[] offsets;
+    private final int[] successors;
+
+    private IndexedGraph(int nodeCount, int[] offsets, int[] successors) {
+        this.nodeCount = nodeCount;
+        this.offsets = offsets;
+        this.successors = successors;
+    }
+
+    public static Builder builder(int nodeCount) {
+        return new Builder(nodeCount);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return the index in {@link #successorArray()} of the first successor of {@code node}
+     */
+    int successorStart(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * @return the index in {@link #successorArray()} after the last successor of {@code node}
+     */
+    int successorEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * @return the successors of all nodes, each node's successors in ascending order
+     */
+    int[] successorArray() {
+        return successors;
+    }
+
+    public int[] successors(int node) {
+        return Arrays.copyOfRange(successors, offsets[node], offsets[node + 1]);
+    }
+
+    /**
+     * Splits the graph into strongly connected components with Tarjan's algorithm, using an explicit stack so deep
+     * graphs can't overflow the thread's stack.
+     *
+     * @return the components, each holding the ids of its nodes
+     */
+    public List<int[]> stronglyConnectedComponents() {
+        final List<int[]> components = new ArrayList<>();
+        final int[] index = new int[nodeCount]; // discovery order, starting at 1; 0 means not visited yet
+        final int[] low = new int[nodeCount];
+        final boolean[] onStack = new boolean[nodeCount];
+        final int[] stack = new int[nodeCount];
+        int stackTop = 0;
+        // The call stack of the recursive formulation: the node and the next successor position to visit
+        final int[] callNode = new int[nodeCount];
+        final int[] callEdge = new int[nodeCount];
+        int counter = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] != 0) continue;
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = offsets[root];
+            index[root] = low[root] = ++counter;
+            stack[stackTop++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                final int node = callNode[depth];
+                if (callEdge[depth] < offsets[node + 1]) {
+                    final int next = successors[callEdge[depth]++];
+                    if (index[next] == 0) {
+                        index[next] = low[next] = ++counter;
+                        stack[stackTop++] = next;
+                        onStack[next] = true;
+                        depth++;
+                        callNode[depth] = next;
+                        callEdge[depth] = offsets[next];
+                    } else if (onStack[next]) {
+                        low[node] = Math.min(low[node], index[next]);
+                    }
+                    continue;
+                }
+
+                if (low[node] == index[node]) {
+                    int start = stackTop;
+                    do {
+                        onStack[stack[--start]] = false;
+                    } while (stack[start] != node);
+                    components.add(Arrays.copyOfRange(stack, start, stackTop));
+                    stackTop = start;
+                }
+                depth--;
+                if (depth >= 0) {
+                    final int parent = callNode[depth];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+            }
+        }
+        return components;
+    }
+
+    public static final class Builder {
+        private final int nodeCount;
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int edgeCount;
+
+        private Builder(int nodeCount) {
+            Preconditions.checkArgument(nodeCount >= 0, "Negative node count");
+            this.nodeCount = nodeCount;
+        }
+
+        public Builder putEdge(int source, int target) {
+            Preconditions.checkElementIndex(source, nodeCount);
+            Preconditions.checkElementIndex(target, nodeCount);
+            Preconditions.checkArgument(source != target, "Cannot add a self loop for node %s", source);
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+            }
+            sources[edgeCount] = source;
+            targets[edgeCount] = target;
+            edgeCount++;
+            return this;
+        }
+
+        public IndexedGraph build() {
+            // Counting sort of the edges by source, then sort and deduplicate each row
+            final int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            final int[] fill = Arrays.copyOf(offsets, nodeCount);
+            final int[] rows = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                rows[fill[sources[i]]++] = targets[i];
+            }
+
+            final int[] compactOffsets = new int[nodeCount + 1];
+            int size = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                final int start = offsets[node];
+                final int end = offsets[node + 1];
+                Arrays.sort(rows, start, end);
+                for (int i = start; i < end; i++) {
+                    if (i == start || rows[i] != rows[i - 1]) {
+                        rows[size++] = rows[i];
+                    }
+                }
+                compactOffsets[node + 1] = size;
+            }
+            return new IndexedGraph(nodeCount, compactOffsets, Arrays.copyOf(rows, size));
+        }
+    }
+}
@@ -7,7 +7,6 @@ package net.neoforged.fml.loading.toposort;
 
 import com.google.common.graph.Graph;
 
-import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -15,7 +14,7 @@ import java.util.Set;
 
 /**
  * An object that splits a graph into strongly connected components lazily with
- * Tarjan's Strongly Connected Components Algorithm.
+ * Tarjan's Strongly Connected Components Algorithm, see {@link IndexedGraph#stronglyConnectedComponents()}.
  *
  * <p>This algorithm allows to detect all cycles in dependencies that prevent topological
  * sorting.
@@ -25,13 +24,6 @@ import java.util.Set;
  */
 public class StronglyConnectedComponentDetector<T> {
     private final Graph<T> graph;
-    private Map<T, Integer> ids;
-    private T[] elements;
-    private int[] dfn;
-    private int[] low;
-    private int[] stack;
-    private int top;
-    private BitSet onStack;
     private Set<Set<T>> components;
 
     public StronglyConnectedComponentDetector(Graph<T> graph) {
@@ -49,61 +41,31 @@ public class StronglyConnectedComponentDetector<T> {
     private void calculate() {
         components = new HashSet<>();
         int t = 0;
-        ids = new HashMap<>();
-        Set<T> nodes = graph.nodes();
-        elements = (T[]) new Object[nodes.size()];
+        final Map<T, Integer> ids = new HashMap<>();
+        final Set<T> nodes = graph.nodes();
+        final T[] elements = (T[]) new Object[nodes.size()];
         for (T node : nodes) {
             ids.put(node, t);
             elements[t] = node;
             t++;
         }
 
-        final int n = nodes.size();
-        dfn = new int[n];
-        low = new int[n];
-        stack = new int[n];
-        onStack = new BitSet(n);
-        top = -1;
-        for (int i = 0; i < n; i++) {
-            if (dfn[i] == 0) {
-                dfs(i, 1);
-            }
-        }
-    }
-
-    private void dfs(int now, int depth) {
-        dfn[now] = depth;
-        low[now] = depth;
-        top++;
-        stack[top] = now;
-        onStack.set(now);
-        for (T each : graph.successors(elements[now])) {
-            int to = ids.get(each);
-            if (dfn[to] != 0) {
-                if (low[now] > dfn[to]) {
-                    low[now] = dfn[to];
-                }
-            } else {
-                dfs(to, depth + 1);
-                if (low[now] > low[to]) {
-                    low[now] = low[to];
+        final IndexedGraph.Builder builder = IndexedGraph.builder(elements.length);
+        for (int i = 0; i < elements.length; i++) {
+            for (T each : graph.successors(elements[i])) {
+                final int to = ids.get(each);
+                // a self loop doesn't change which component a node belongs to
+                if (to != i) {
+                    builder.putEdge(i, to);
                 }
             }
         }
-
-        if (dfn[now] == low[now]) {
-            Set<T> component = new HashSet<>();
-            while (top >= 0) {
-                final int t = stack[top];
-                component.add(elements[t]);
-                onStack.clear(t);
-                top--;
-                if (t == now) {
-                    break;
-                }
+        for (int[] memberIds : builder.build().stronglyConnectedComponents()) {
+            final Set<T> component = new HashSet<>();
+            for (int id : memberIds) {
+                component.add(elements[id]);
             }
             components.add(component);
         }
     }
-
 }
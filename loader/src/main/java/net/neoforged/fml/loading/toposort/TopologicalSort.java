@@ -11,8 +11,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -97,6 +99,106 @@ public final class TopologicalSort {
         return results;
     }
 
+    /**
+     * A breath-first-search based topological sort of a graph with dense int node ids.
+     *
+     * <p>Whenever several nodes have no remaining prerequisites, the one with the lowest id comes first. This is
+     * the order {@link #topologicalSort(Graph, Comparator)} produces when the comparator orders nodes the same
+     * way as their ids, but without hashing any nodes.
+     *
+     * @param graph the graph to sort
+     * @param nodes the node for each id of the graph
+     * @param <T>   the node type
+     * @return the ordered nodes
+     * @throws CyclePresentException if the graph contains cycles
+     */
+    public static <T> List<T> topologicalSort(IndexedGraph graph, List<T> nodes) {
+        Preconditions.checkArgument(graph.nodeCount() == nodes.size(), "Expected %s nodes, got %s", graph.nodeCount(), nodes.size());
+        final int[] order = sortIds(graph);
+        if (order.length < graph.nodeCount()) {
+            final Set<Set<T>> components = new HashSet<>();
+            for (int[] component : graph.stronglyConnectedComponents()) {
+                if (component.length < 2) continue;
+                final Set<T> cycle = new HashSet<>();
+                for (int id : component) {
+                    cycle.add(nodes.get(id));
+                }
+                components.add(cycle);
+            }
+            throwCyclePresentException(components);
+        }
+        final List<T> results = new ArrayList<>(order.length);
+        for (int id : order) {
+            results.add(nodes.get(id));
+        }
+        return results;
+    }
+
+    /**
+     * Kahn's algorithm with the ready nodes kept in a min-heap of ids.
+     *
+     * @return the sorted ids, fewer than the graph's nodes if it contains cycles
+     */
+    private static int[] sortIds(IndexedGraph graph) {
+        final int n = graph.nodeCount();
+        final int[] successors = graph.successorArray();
+        final int[] degrees = new int[n];
+        for (int successor : successors) {
+            degrees[successor]++;
+        }
+        final int[] heap = new int[n];
+        int heapSize = 0;
+        for (int node = 0; node < n; node++) {
+            // ids are added in ascending order, which already satisfies the heap property
+            if (degrees[node] == 0) heap[heapSize++] = node;
+        }
+
+        final int[] results = new int[n];
+        int count = 0;
+        while (heapSize > 0) {
+            final int current = heap[0];
+            heapSize = siftDown(heap, heapSize - 1, heap[heapSize - 1]);
+            results[count++] = current;
+            for (int i = graph.successorStart(current), end = graph.successorEnd(current); i < end; i++) {
+                final int successor = successors[i];
+                if (--degrees[successor] == 0) {
+                    siftUp(heap, heapSize++, successor);
+                }
+            }
+        }
+        return count == n ? results : Arrays.copyOf(results, count);
+    }
+
+    /**
+     * Removes the root of a heap by moving {@code last}, the former last element, down from the root.
+     *
+     * @return the new heap size
+     */
+    private static int siftDown(int[] heap, int size, int last) {
+        if (size == 0) return 0;
+        int pos = 0;
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (last <= heap[child]) break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = last;
+        return size;
+    }
+
+    private static void siftUp(int[] heap, int pos, int value) {
+        while (pos > 0) {
+            final int parent = (pos - 1) >>> 1;
+            if (heap[parent] <= value) break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = value;
+    }
+
     @SuppressWarnings("unchecked") // for unchecked annotation
     private static <T> void throwCyclePresentException(Set<Set<T>> components) {
         throw new CyclePresentException((Set<Set<?>>) (Set<?>) components);